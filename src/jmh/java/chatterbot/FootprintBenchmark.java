@@ -0,0 +1,99 @@
+package chatterbot;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chatterbot.tasks.Deadline;
+import chatterbot.tasks.Event;
+import chatterbot.tasks.Task;
+import chatterbot.tasks.Todo;
+
+/**
+ * Compares the heap kept alive by a million tasks held as objects in an {@link ArrayList} with the same tasks
+ * in a {@link ColumnarTaskList}. The retained heap is measured after a full collection on both sides of
+ * filling the list and reported per task as the {@code bytesPerTask} secondary result; the time is only
+ * how long filling took. Run with {@code ./gradlew jmh -PjmhIncludes=FootprintBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FootprintBenchmark {
+    @Param({"1000000"})
+    private int taskCount;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 2, 20, 8, 0);
+
+    /**
+     * The retained heap of the list filled by the last invocation.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public double bytesPerTask;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerTask = 0;
+        }
+    }
+
+    @Benchmark
+    public List<Task> objectList(Footprint footprint) {
+        return fill(() -> new ArrayList<>(taskCount), footprint);
+    }
+
+    @Benchmark
+    public List<Task> columnarList(Footprint footprint) {
+        return fill(() -> new ColumnarTaskList(taskCount), footprint);
+    }
+
+    private List<Task> fill(Supplier<List<Task>> listFactory, Footprint footprint) {
+        long before = usedHeapAfterGc();
+        List<Task> tasks = listFactory.get();
+        for (int i = 0; i < taskCount; i++) {
+            Task task;
+            LocalDateTime time = start.plusMinutes(i);
+            if (i % 3 == 0) {
+                task = new Todo("read chapter " + i);
+            } else if (i % 3 == 1) {
+                task = new Deadline("submit report " + i, time);
+            } else {
+                task = new Event("project meeting " + i, time, time.plusHours(1));
+            }
+            task.setId(i + 1);
+            tasks.add(task);
+        }
+        footprint.bytesPerTask = (double) (usedHeapAfterGc() - before) / taskCount;
+        return tasks;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
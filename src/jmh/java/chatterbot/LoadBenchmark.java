@@ -0,0 +1,94 @@
+package chatterbot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chatterbot.tasks.Deadline;
+import chatterbot.tasks.Event;
+import chatterbot.tasks.Task;
+import chatterbot.tasks.Todo;
+
+/**
+ * Measures cold-start loading of a large storage file: each fork loads the file once in a fresh JVM,
+ * so the numbers include class loading and interpretation, as they would at application startup.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=LoadBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+    @Param({"1000000"})
+    private int lineCount;
+
+    private Path tempDir;
+    private Path textFile;
+    private Path binaryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("chatterbot-bench");
+        textFile = tempDir.resolve("tasks.txt");
+        binaryFile = tempDir.resolve("tasks.bin");
+
+        List<Task> tasks = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            Task task;
+            if (i % 3 == 0) {
+                task = new Todo("read chapter " + i);
+            } else if (i % 3 == 1) {
+                task = new Deadline("submit report " + i, "2025-02-20 1800");
+            } else {
+                task = new Event("project meeting " + i, "2025-02-22 1400", "2025-02-22 1600");
+            }
+            if (i % 2 == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        new Storage(textFile.toString(), FsyncPolicy.NEVER).saveTasks(tasks);
+        new Storage(binaryFile.toString(), FsyncPolicy.NEVER).migrate(StorageFormat.BINARY, tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(textFile);
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(tempDir);
+    }
+
+    @Benchmark
+    public List<Task> sequentialText() throws IOException {
+        return Storage.readTextFile(textFile);
+    }
+
+    @Benchmark
+    public List<Task> parallelText() throws IOException {
+        return ParallelTaskLoader.load(textFile);
+    }
+
+    @Benchmark
+    public List<Task> binary() throws IOException {
+        return BinaryTaskFormat.read(binaryFile);
+    }
+}
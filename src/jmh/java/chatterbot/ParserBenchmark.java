@@ -0,0 +1,116 @@
+package chatterbot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chatterbot.exceptions.ChatterBotException;
+import chatterbot.tasks.TaskList;
+
+/**
+ * Measures command handling over a mix like a bulk import: mostly todos, deadlines and events, with some
+ * marking and the odd mistyped command. {@code handleMix} runs the whole commands against a fresh list;
+ * {@code keywordDispatch} and {@code legacyTokenize} compare just finding the command and its parts, through the
+ * parser's command table, with how the parser used to do it, by splitting the input, upper-casing the keyword
+ * for an enum's {@code valueOf} and splitting on regular expressions. Times are per command.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=ParserBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    private static final int COMMAND_COUNT = 1000;
+
+    private final String[] commands = new String[COMMAND_COUNT];
+    private final Ui ui = new Ui(true);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            String date = String.format("2025-02-%02d", 1 + i % 28);
+            int kind = i % 20;
+            if (kind < 8) {
+                commands[i] = "todo read chapter " + i;
+            } else if (kind < 13) {
+                commands[i] = "deadline submit report " + i + " /by " + date + " 1800";
+            } else if (kind < 17) {
+                commands[i] = "event project meeting " + i + " /from " + date + " 1400 /to " + date + " 1600";
+            } else if (kind < 19) {
+                commands[i] = "mark " + (i / 2 + 1);
+            } else {
+                commands[i] = "tood read chapter " + i;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMAND_COUNT)
+    public TaskList handleMix(Blackhole blackhole) {
+        TaskList tasks = new TaskList();
+        for (String command : commands) {
+            try {
+                blackhole.consume(Parser.handleCommand(command, tasks, ui, null));
+            } catch (ChatterBotException e) {
+                blackhole.consume(e);
+            }
+        }
+        return tasks;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMAND_COUNT)
+    public void keywordDispatch(Blackhole blackhole) {
+        for (String command : commands) {
+            String name = Parser.resolveCommand(command);
+            blackhole.consume(name);
+            if ("deadline".equals(name)) {
+                blackhole.consume(command.indexOf(" /by ", 8));
+            } else if ("event".equals(name)) {
+                int fromStart = command.indexOf(" /from ", 5);
+                blackhole.consume(command.indexOf(" /to ", fromStart + 7));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMAND_COUNT)
+    public void legacyTokenize(Blackhole blackhole) {
+        for (String command : commands) {
+            LegacyCommand type;
+            try {
+                type = LegacyCommand.valueOf(command.split(" ", 2)[0].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                type = LegacyCommand.UNKNOWN;
+            }
+            blackhole.consume(type);
+            if (type == LegacyCommand.DEADLINE) {
+                blackhole.consume(command.substring(8).split(" /by "));
+            } else if (type == LegacyCommand.EVENT) {
+                blackhole.consume(command.substring(5).split(" /from | /to "));
+            }
+        }
+    }
+
+    /**
+     * The command keywords as the parser used to look them up.
+     */
+    private enum LegacyCommand {
+        BYE, LIST, TODO, DEADLINE, EVENT, MARK, UNMARK, DELETE, FIND, FREE, UPCOMING, DUE, CONVERT, BATCH, STATS,
+        UNKNOWN
+    }
+}
@@ -0,0 +1,90 @@
+package chatterbot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskList;
+import chatterbot.tasks.Todo;
+
+/**
+ * Measures save latency under each fsync policy, for full snapshot rewrites and for journal appends.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=StorageBenchmark}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"ALWAYS", "BATCHED", "NEVER"})
+    private FsyncPolicy fsyncPolicy;
+
+    @Param({"1000", "100000"})
+    private int taskCount;
+
+    private Path tempDir;
+    private List<Task> tasks;
+    private Storage snapshotStorage;
+    private JournaledStorage journaledStorage;
+    private TaskList journaledTasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("chatterbot-bench");
+        tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new Todo("benchmark task number " + i));
+        }
+
+        snapshotStorage = new Storage(tempDir.resolve("snapshot.txt").toString(), fsyncPolicy);
+
+        journaledStorage = new JournaledStorage(tempDir.resolve("journal.txt").toString(), Integer.MAX_VALUE,
+                fsyncPolicy);
+        journaledTasks = new TaskList(journaledStorage.loadTasks());
+        journaledStorage.attach(journaledTasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journaledStorage.close();
+        try (var paths = Files.list(tempDir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(tempDir);
+    }
+
+    @Benchmark
+    public void saveSnapshot() {
+        snapshotStorage.saveTasks(tasks);
+    }
+
+    @Benchmark
+    public void appendJournalRecord() {
+        journaledTasks.addTask(new Todo("journaled task"));
+        journaledStorage.saveTasks(journaledTasks.getAllTasks());
+    }
+}
@@ -0,0 +1,71 @@
+package chatterbot.tasks;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares compiling a pattern on every call, as tasks used to, with the shared formatters and the storage
+ * format fast path. The gc profiler configured in build.gradle reports the allocation per operation.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=DateTimeFormatsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateTimeFormatsBenchmark {
+    private final String text = "2025-02-20 1800";
+    private final LocalDateTime dateTime = LocalDateTime.of(2025, 2, 20, 18, 0);
+
+    @Benchmark
+    public LocalDateTime parsePatternPerCall() {
+        return LocalDateTime.parse(text, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+    }
+
+    @Benchmark
+    public LocalDateTime parseSharedFormatter() {
+        return LocalDateTime.parse(text, DateTimeFormats.STORAGE);
+    }
+
+    @Benchmark
+    public LocalDateTime parseFastPath() {
+        return DateTimeFormats.parseStorage(text);
+    }
+
+    @Benchmark
+    public String formatPatternPerCall() {
+        return dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+    }
+
+    @Benchmark
+    public String formatSharedFormatter() {
+        return dateTime.format(DateTimeFormats.STORAGE);
+    }
+
+    @Benchmark
+    public String formatFastPath() {
+        return DateTimeFormats.formatStorage(dateTime);
+    }
+
+    @Benchmark
+    public String displayPatternPerCall() {
+        return dateTime.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a"));
+    }
+
+    @Benchmark
+    public String displaySharedFormatter() {
+        return dateTime.format(DateTimeFormats.DISPLAY);
+    }
+}
@@ -0,0 +1,94 @@
+package chatterbot.tasks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the substring scan of {@code find} with the keyword index behind {@code find /word} and
+ * {@code find /prefix}, and with the same substring search narrowed by the trigram index.
+ * The indexes are built during setup, so only the queries are measured.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=FindBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FindBenchmark {
+    private static final String[] WORDS = {"read", "write", "submit", "review", "plan", "buy", "call", "fix"};
+    private static final String[] OBJECTS = {"report", "book", "groceries", "slides", "invoice", "tests"};
+
+    @Param({"1000000"})
+    private int taskCount;
+
+    private TaskList tasks;
+    private TaskList trigramIndexedTasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskList();
+        trigramIndexedTasks = new TaskList();
+        trigramIndexedTasks.enableSubstringIndex(TaskList.DEFAULT_SUBSTRING_INDEX_MAX_POSTINGS);
+        for (int i = 0; i < taskCount; i++) {
+            String description = WORDS[i % WORDS.length] + " " + OBJECTS[i % OBJECTS.length] + " " + i;
+            tasks.addTask(new Todo(description));
+            trigramIndexedTasks.addTask(new Todo(description));
+        }
+        tasks.findTasksByWords("warm");
+        trigramIndexedTasks.findTasks("warm");
+    }
+
+    @Benchmark
+    public List<IndexedTask> scanRareWord() {
+        return tasks.findTasks("777777");
+    }
+
+    @Benchmark
+    public List<IndexedTask> indexRareWord() {
+        return tasks.findTasksByWords("777777");
+    }
+
+    @Benchmark
+    public List<IndexedTask> scanTwoWords() {
+        return tasks.findTasks("call invoice");
+    }
+
+    @Benchmark
+    public List<IndexedTask> indexTwoWords() {
+        return tasks.findTasksByWords("call invoice");
+    }
+
+    @Benchmark
+    public List<IndexedTask> indexPrefix() {
+        return tasks.findTasksByPrefix("12345");
+    }
+
+    @Benchmark
+    public List<IndexedTask> scanSubstring() {
+        return tasks.findTasks("ceries 99");
+    }
+
+    @Benchmark
+    public List<IndexedTask> trigramRareWord() {
+        return trigramIndexedTasks.findTasks("777777");
+    }
+
+    @Benchmark
+    public List<IndexedTask> trigramSubstring() {
+        return trigramIndexedTasks.findTasks("ceries 99");
+    }
+}
@@ -0,0 +1,79 @@
+package chatterbot.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the free time search over the event index with the step the search used to repeat on every call:
+ * collecting and sorting all events, before even walking them. The events are one-hour slots spread over the days
+ * around the search time, with every day fully booked except for a gap on the last one.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=FreeTimeBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FreeTimeBenchmark {
+    private static final FreeTimeOptions YEAR_TOP_TEN = new FreeTimeOptions(365, 8, 22, 1, 10);
+
+    @Param({"100000"})
+    private int eventCount;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 2, 20, 8, 0);
+    private TaskList tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskList();
+        LocalDateTime firstStart = now.minusDays(eventCount / 24 / 2).withHour(0);
+        for (int i = 0; i < eventCount; i++) {
+            LocalDateTime start = firstStart.plusHours(i);
+            boolean isGap = start.getDayOfMonth() == now.plusDays(6).getDayOfMonth() && start.getHour() == 15;
+            if (!isGap) {
+                tasks.addTask(new Event("slot " + i, start, start.plusHours(1)));
+            }
+        }
+        tasks.findFreeTime(1, now);
+    }
+
+    @Benchmark
+    public String eventIndex() {
+        return tasks.findFreeTime(1, now);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> yearHorizonTopTen() {
+        return tasks.findFreeSlots(Duration.ofMinutes(30), YEAR_TOP_TEN, now);
+    }
+
+    @Benchmark
+    public List<Event> sortEveryCall() {
+        List<Event> events = new ArrayList<>();
+        for (Task task : tasks.getAllTasks()) {
+            if (task instanceof Event) {
+                events.add((Event) task);
+            }
+        }
+        events.sort(Comparator.comparing(Event::getStartTime));
+        return events;
+    }
+}
@@ -0,0 +1,146 @@
+package chatterbot.tasks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares handing a saver the published snapshot of a task list with the defensive {@code new ArrayList<>(tasks)}
+ * copy it would otherwise need. The {@code ...AndCopy} and {@code ...AndSnapshot} benchmarks time one change
+ * followed by taking the list to save. The {@code retain...} benchmarks keep a version of the list after each of
+ * {@value #RETAINED_VERSIONS} changes, as a slow saver or a reader holding on to old versions would, and report
+ * the heap that takes per version as the {@code bytesPerVersion} secondary result.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=SnapshotBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    private static final int RETAINED_VERSIONS = 100;
+
+    @Param({"10000", "1000000"})
+    private int taskCount;
+
+    private TaskList copiedTasks;
+    private TaskList snapshotTasks;
+    private int nextIndex;
+
+    /**
+     * The retained heap of the versions kept by the last invocation.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public double bytesPerVersion;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerVersion = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        copiedTasks = fill(new TaskList());
+        snapshotTasks = fill(new TaskList());
+        snapshotTasks.enableSnapshots();
+    }
+
+    private TaskList fill(TaskList tasks) {
+        for (int i = 0; i < taskCount; i++) {
+            tasks.addTask(new Todo("read chapter " + i));
+        }
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> markAndCopy() {
+        toggle(copiedTasks);
+        return new ArrayList<>(copiedTasks.getAllTasks());
+    }
+
+    @Benchmark
+    public List<Task> markAndSnapshot() {
+        toggle(snapshotTasks);
+        return snapshotTasks.getSnapshot();
+    }
+
+    @Benchmark
+    public List<Task> addRemoveAndCopy() {
+        addAndRemove(copiedTasks);
+        return new ArrayList<>(copiedTasks.getAllTasks());
+    }
+
+    @Benchmark
+    public List<Task> addRemoveAndSnapshot() {
+        addAndRemove(snapshotTasks);
+        return snapshotTasks.getSnapshot();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<List<Task>> retainCopies(Footprint footprint) {
+        return retain(copiedTasks, true, footprint);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<List<Task>> retainSnapshots(Footprint footprint) {
+        return retain(snapshotTasks, false, footprint);
+    }
+
+    private List<List<Task>> retain(TaskList tasks, boolean isCopied, Footprint footprint) {
+        long before = usedHeapAfterGc();
+        List<List<Task>> versions = new ArrayList<>(RETAINED_VERSIONS);
+        for (int i = 0; i < RETAINED_VERSIONS; i++) {
+            toggle(tasks);
+            versions.add(isCopied ? new ArrayList<>(tasks.getAllTasks()) : tasks.getSnapshot());
+        }
+        footprint.bytesPerVersion = (double) (usedHeapAfterGc() - before) / RETAINED_VERSIONS;
+        return versions;
+    }
+
+    /**
+     * Marks or unmarks a task, moving through the list so each change touches a different part of it.
+     */
+    private void toggle(TaskList tasks) {
+        nextIndex = (nextIndex + 7919) % taskCount;
+        if (tasks.getTask(nextIndex).isDone()) {
+            tasks.markTaskAsNotDone(nextIndex);
+        } else {
+            tasks.markTaskAsDone(nextIndex);
+        }
+    }
+
+    private static void addAndRemove(TaskList tasks) {
+        tasks.addTask(new Todo("new task"));
+        tasks.removeTask(tasks.size() - 1);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
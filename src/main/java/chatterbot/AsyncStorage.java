@@ -0,0 +1,211 @@
+package chatterbot;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import chatterbot.tasks.Task;
+
+/**
+ * Storage that saves tasks on a dedicated writer thread instead of the caller's thread.
+ * Saves requested while the writer is waiting or busy are coalesced, so a burst of commands
+ * results in a single write of the latest task list.
+ *
+ * <p>A save is written at most {@code maxStalenessMillis} after it was requested, plus the time
+ * the write itself takes. Pending saves are flushed on {@link #close()} and when the JVM exits.
+ * A save that fails is reported and skipped, like a synchronous one. Should the writer thread die anyway,
+ * later saves are written on the caller's thread and the next flush reports what stopped it.
+ */
+public class AsyncStorage extends Storage {
+    /** The default upper bound, in milliseconds, on how long a save may wait before it is written. */
+    public static final long DEFAULT_MAX_STALENESS_MS = 200;
+
+    private final long maxStalenessNanos;
+    private final Thread writer;
+    private final Thread shutdownHook;
+
+    private List<Task> pendingTasks;
+    private long pendingSinceNanos;
+    private boolean isFlushRequested;
+    private boolean isWriting;
+    private boolean isClosed;
+    private boolean isWriterStopped;
+    private Throwable writerFailure;
+
+    /**
+     * Constructs an AsyncStorage with the default staleness bound.
+     *
+     * @param filePath The path of the file used for storage.
+     */
+    public AsyncStorage(String filePath) {
+        this(filePath, DEFAULT_MAX_STALENESS_MS, FsyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Constructs an AsyncStorage and starts its writer thread.
+     *
+     * @param filePath           The path of the file used for storage.
+     * @param maxStalenessMillis How long a save may be held back to coalesce it with later saves.
+     * @param fsyncPolicy        How often writes are forced to disk.
+     */
+    public AsyncStorage(String filePath, long maxStalenessMillis, FsyncPolicy fsyncPolicy) {
+        super(filePath, fsyncPolicy);
+        assert maxStalenessMillis >= 0 : "Maximum staleness cannot be negative";
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+
+        this.writer = new Thread(this::runWriter, "chatterbot-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        this.shutdownHook = new Thread(this::flush, "chatterbot-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues the tasks to be saved by the writer thread and returns immediately.
+     * Replaces any save that has not been written yet.
+     *
+     * @param tasks The list of tasks to save.
+     */
+    @Override
+    public synchronized void saveTasks(List<Task> tasks) {
+        assert tasks != null : "Task list to be saved cannot be null";
+        if (isClosed || isWriterStopped) {
+            super.saveTasks(tasks);
+            return;
+        }
+        if (pendingTasks == null) {
+            pendingSinceNanos = System.nanoTime();
+        }
+        pendingTasks = copyForSaving(tasks);
+        notifyAll();
+    }
+
+    /**
+     * Writes any pending save immediately and waits until it is on disk.
+     *
+     * @throws IllegalStateException If the writer thread died. Any save it left behind has been written on the
+     *                               caller's thread by then.
+     */
+    public synchronized void flush() {
+        isFlushRequested = true;
+        notifyAll();
+        try {
+            while ((pendingTasks != null || isWriting) && !isWriterStopped) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            isFlushRequested = false;
+        }
+
+        if (isWriterStopped && pendingTasks != null) {
+            super.saveTasks(pendingTasks);
+            pendingTasks = null;
+        }
+        if (writerFailure != null) {
+            Throwable failure = writerFailure;
+            writerFailure = null;
+            throw new IllegalStateException("The background writer stopped: " + failure, failure);
+        }
+    }
+
+    /**
+     * Flushes any pending save, then rewrites the storage file in the given format on the caller's thread.
+     *
+     * @param format The format to convert to.
+     * @param tasks  The current list of tasks.
+     * @throws IOException If the storage file cannot be written.
+     */
+    @Override
+    public void migrate(StorageFormat format, List<Task> tasks) throws IOException {
+        flush();
+        super.migrate(format, tasks);
+    }
+
+    /**
+     * Flushes any pending save and stops the writer thread.
+     * Later saves are written synchronously.
+     *
+     * @throws IllegalStateException If the writer thread had died. The storage is closed anyway.
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                isClosed = true;
+                notifyAll();
+            }
+            try {
+                writer.join();
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down, so the hook can no longer be removed
+            }
+        }
+    }
+
+    private void runWriter() {
+        try {
+            List<Task> tasks;
+            while ((tasks = takePendingTasks()) != null) {
+                try {
+                    writeSnapshot(tasks, 0);
+                    countSave();
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Error saving tasks: " + e.getMessage());
+                } catch (Error e) {
+                    synchronized (this) {
+                        writerFailure = e; // Before waking a flush, so it sees why the writer stopped
+                        isWriterStopped = true;
+                    }
+                    throw e;
+                } finally {
+                    synchronized (this) {
+                        isWriting = false;
+                        notifyAll();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                isWriterStopped = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits for a save request, then holds it until its staleness bound expires or a flush is requested,
+     * so that saves arriving in the meantime are folded into it.
+     *
+     * @return The latest tasks to write, or {@code null} once the storage is closed.
+     */
+    private synchronized List<Task> takePendingTasks() throws InterruptedException {
+        while (pendingTasks == null && !isClosed) {
+            wait();
+        }
+        if (pendingTasks == null) {
+            return null;
+        }
+
+        long deadline = pendingSinceNanos + maxStalenessNanos;
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0 && !isFlushRequested && !isClosed) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+
+        List<Task> tasks = pendingTasks;
+        pendingTasks = null;
+        isWriting = true;
+        return tasks;
+    }
+}
@@ -0,0 +1,299 @@
+package chatterbot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import chatterbot.tasks.Deadline;
+import chatterbot.tasks.Event;
+import chatterbot.tasks.Task;
+import chatterbot.tasks.Todo;
+
+/**
+ * Reads and writes the compact binary storage format.
+ *
+ * <p>A file starts with a header of the magic number {@code CHBT}, a format version, the storage generation
+ * and the task count. Each task follows as a tag byte holding the task type and the done bit, the task id,
+ * a length-prefixed UTF-8 description and, for deadlines and events, their times as minutes since the epoch.
+ * Header numbers are big-endian; ids and description lengths are unsigned LEB128 varints, and times are
+ * zigzag-encoded LEB128 varints, so any year the date parser accepts fits.
+ * Version 1 files, written before tasks had ids, and version 2 files, which held times as four-byte minutes,
+ * are still read.
+ */
+public final class BinaryTaskFormat {
+    /** The first four bytes of every binary storage file, "CHBT" in ASCII. */
+    public static final int MAGIC = 0x43484254;
+    /** The format version written by this class. */
+    public static final short VERSION = 3;
+    private static final short FIRST_VERSION_WITH_IDS = 2;
+    private static final short FIRST_VERSION_WITH_VARINT_TIMES = 3;
+
+    private static final int TODO_TAG = 0;
+    private static final int DEADLINE_TAG = 1;
+    private static final int EVENT_TAG = 2;
+    private static final int TYPE_MASK = 0x0F;
+    private static final int DONE_BIT = 0x80;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int MIN_TASK_BYTES = 2; // A tag byte and an empty description's length
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Returns whether the file starts with the binary format's magic number.
+     *
+     * @param path The file to check.
+     * @return {@code true} if the file is in the binary format.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isBinary(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Writes the tasks in the binary format.
+     *
+     * @param channel    The channel to write to.
+     * @param tasks      The tasks to write.
+     * @param generation The storage generation to record in the header.
+     * @throws IOException If the channel cannot be written.
+     */
+    public static void write(FileChannel channel, List<Task> tasks, long generation) throws IOException {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(generation);
+        out.writeInt(tasks.size());
+
+        for (Task task : tasks) {
+            int doneBit = task.isDone() ? DONE_BIT : 0;
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            if (task instanceof Deadline) {
+                out.writeByte(DEADLINE_TAG | doneBit);
+                writeVarInt(out, task.getId());
+                writeDescription(out, description);
+                writeVarLong(out, toEpochMinute(((Deadline) task).getBy()));
+            } else if (task instanceof Event) {
+                Event event = (Event) task;
+                out.writeByte(EVENT_TAG | doneBit);
+                writeVarInt(out, task.getId());
+                writeDescription(out, description);
+                writeVarLong(out, toEpochMinute(event.getStartTime()));
+                writeVarLong(out, toEpochMinute(event.getEndTime()));
+            } else {
+                out.writeByte(TODO_TAG | doneBit);
+                writeVarInt(out, task.getId());
+                writeDescription(out, description);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads all tasks from a binary storage file.
+     *
+     * @param path The file to read.
+     * @return The tasks in the file.
+     * @throws IOException If the file cannot be read or is not a valid binary storage file.
+     */
+    public static List<Task> read(Path path) throws IOException {
+        return read(path, ArrayList::new);
+    }
+
+    /**
+     * Reads all tasks from a binary storage file into a list of the caller's choosing.
+     * The file is read into memory rather than mapped, so it can be replaced as soon as this returns.
+     *
+     * @param path        The file to read.
+     * @param listFactory Creates an empty list given the number of tasks in the file.
+     * @return The list holding the tasks in the file.
+     * @throws IOException If the file cannot be read or is not a valid binary storage file.
+     */
+    public static List<Task> read(Path path, IntFunction<List<Task>> listFactory) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        int count = readHeader(buffer);
+        short version = buffer.getShort(Integer.BYTES);
+        boolean hasIds = version >= FIRST_VERSION_WITH_IDS;
+        boolean hasVarIntTimes = version >= FIRST_VERSION_WITH_VARINT_TIMES;
+
+        List<Task> tasks = listFactory.apply(count);
+        byte[] scratch = new byte[256];
+        try {
+            for (int i = 0; i < count; i++) {
+                int tag = buffer.get() & 0xFF;
+                int id = hasIds ? readVarInt(buffer) : 0;
+                int length = readVarInt(buffer);
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Binary storage file holds a description of " + length
+                            + " bytes with only " + buffer.remaining() + " left");
+                }
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                String description = new String(scratch, 0, length, StandardCharsets.UTF_8);
+
+                Task task;
+                switch (tag & TYPE_MASK) {
+                case TODO_TAG:
+                    task = new Todo(description);
+                    break;
+                case DEADLINE_TAG:
+                    task = new Deadline(description, readTime(buffer, hasVarIntTimes));
+                    break;
+                case EVENT_TAG:
+                    task = new Event(description, readTime(buffer, hasVarIntTimes),
+                            readTime(buffer, hasVarIntTimes));
+                    break;
+                default:
+                    throw new IOException("Unknown task type " + (tag & TYPE_MASK));
+                }
+                if ((tag & DONE_BIT) != 0) {
+                    task.markAsDone();
+                }
+                task.setId(id);
+                tasks.add(task);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Binary storage file is truncated after " + tasks.size() + " tasks");
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the storage generation recorded in a binary storage file's header.
+     *
+     * @param path The file to read.
+     * @return The storage generation.
+     * @throws IOException If the file cannot be read or is not a valid binary storage file.
+     */
+    public static long readGeneration(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(HEADER_BYTES);
+            if (header.length < HEADER_BYTES) {
+                throw new IOException("Binary storage file header is truncated");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            buffer.getInt();
+            buffer.getShort();
+            return buffer.getLong();
+        }
+    }
+
+    /**
+     * Converts a time to whole minutes since 1970-01-01T00:00, ignoring seconds.
+     *
+     * @param dateTime The time to convert.
+     * @return The minutes since the epoch.
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts minutes since 1970-01-01T00:00 back to a time.
+     *
+     * @param epochMinute The minutes since the epoch.
+     * @return The corresponding time.
+     */
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer, boolean isVarLong) throws IOException {
+        try {
+            return fromEpochMinute(isVarLong ? readVarLong(buffer) : buffer.getInt());
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new IOException("Binary storage file holds a time out of range");
+        }
+    }
+
+    /**
+     * Validates the header and returns the task count, leaving the buffer positioned at the first task.
+     * A count the rest of the file is too short to hold is rejected before any list is made for it.
+     */
+    private static int readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary storage file");
+        }
+        short version = buffer.getShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary storage version " + version);
+        }
+        buffer.getLong(); // Generation, only needed by journaled storage
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / MIN_TASK_BYTES) {
+            throw new IOException("Binary storage file claims " + count + " tasks in " + buffer.remaining()
+                    + " bytes");
+        }
+        return count;
+    }
+
+    private static void writeDescription(DataOutputStream out, byte[] description) throws IOException {
+        writeVarInt(out, description.length);
+        out.write(description);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    /**
+     * Writes a signed value as a zigzag-encoded varint, so values near zero of either sign stay short.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long remaining = (value << 1) ^ (value >> 63);
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
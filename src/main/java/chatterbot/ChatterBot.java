@@ -1,7 +1,11 @@
 package chatterbot;
 
-import chatterbot.exceptions.EmptyDescriptionException;
-import chatterbot.exceptions.UnknownCommandException;
+import java.util.HashSet;
+import java.util.Set;
+
+import chatterbot.exceptions.ChatterBotException;
+import chatterbot.tasks.ConcurrentTaskList;
+import chatterbot.tasks.DescriptionPool;
 import chatterbot.tasks.TaskList;
 
 /**
@@ -10,36 +14,117 @@ import chatterbot.tasks.TaskList;
  */
 public class ChatterBot {
     private static final String FILE_PATH = "data/chatterbot.txt";
+    private static final String STORAGE_MODE = System.getProperty("chatterbot.storage", Storage.SNAPSHOT_MODE);
+    private static final boolean USE_SUBSTRING_INDEX = Boolean.getBoolean("chatterbot.find.substringIndex");
+    private static final int SUBSTRING_INDEX_MAX_POSTINGS = Integer.getInteger(
+            "chatterbot.find.substringIndexMaxPostings", TaskList.DEFAULT_SUBSTRING_INDEX_MAX_POSTINGS);
+    private static final boolean USE_CONCURRENT_TASK_LIST = Boolean.getBoolean("chatterbot.tasks.concurrent");
+    private static final boolean USE_SNAPSHOTS = Boolean.getBoolean("chatterbot.tasks.snapshots");
+    private static final boolean SHARE_DESCRIPTIONS = Boolean.getBoolean("chatterbot.tasks.shareDescriptions");
+    private static final int DESCRIPTION_POOL_MAX_ENTRIES = Integer.getInteger(
+            "chatterbot.tasks.descriptionPoolMaxEntries", DescriptionPool.DEFAULT_MAX_ENTRIES);
     private Storage storage;
     private TaskList tasks;
     private Ui ui;
-
+    private final Set<String> disabledCommands = new HashSet<>();
+    private long savedVersion;
+    private boolean isExited;
 
     /**
      * Constructs a ChatterBot instance.
      * Initializes UI, storage, and loads existing tasks from file.
+     * The storage mode is read from the {@code chatterbot.storage} system property,
+     * the substring index for {@code find} is enabled by {@code chatterbot.find.substringIndex},
+     * sharing of repeated descriptions by {@code chatterbot.tasks.shareDescriptions},
+     * a task list that can be shared between threads by {@code chatterbot.tasks.concurrent},
+     * and immutable snapshots for saving by {@code chatterbot.tasks.snapshots}.
      */
     public ChatterBot() {
-        this.ui = new Ui();
-        this.storage = new Storage(FILE_PATH);
-        this.tasks = new TaskList(storage.loadTasks());
+        this(Storage.forMode(STORAGE_MODE, FILE_PATH));
+    }
+
+    /**
+     * Constructs a ChatterBot instance that persists its tasks through the given storage.
+     *
+     * @param storage The storage to load tasks from and save tasks to.
+     */
+    public ChatterBot(Storage storage) {
+        this(storage, new Ui());
+    }
+
+    /**
+     * Constructs a ChatterBot instance that persists its tasks through the given storage and shows its replies
+     * through the given user interface.
+     *
+     * @param storage The storage to load tasks from and save tasks to.
+     * @param ui      The user interface to display messages, usually a quiet one when replies go elsewhere.
+     */
+    public ChatterBot(Storage storage, Ui ui) {
+        this.ui = ui;
+        this.storage = storage;
+        if (SHARE_DESCRIPTIONS) {
+            DescriptionPool.enable(DESCRIPTION_POOL_MAX_ENTRIES);
+        }
+        this.tasks = USE_CONCURRENT_TASK_LIST ? ConcurrentTaskList.wrap(storage.loadTasks())
+                : TaskList.wrap(storage.loadTasks());
+        this.savedVersion = tasks.getVersion();
+        storage.attach(tasks);
+        if (USE_SUBSTRING_INDEX) {
+            tasks.enableSubstringIndex(SUBSTRING_INDEX_MAX_POSTINGS);
+        }
+        if (USE_SNAPSHOTS) {
+            tasks.enableSnapshots();
+        }
+    }
+
+    /**
+     * Turns off commands this chatbot must not run, such as those that read or write files of the caller's
+     * choosing. Entering one, in full or shortened, then only tells the user it is not available.
+     *
+     * @param names The full names of the commands.
+     */
+    public void disableCommands(String... names) {
+        for (String name : names) {
+            disabledCommands.add(name);
+        }
     }
 
     /**
      * Generates a response for the user's chat message.
+     * Tasks are saved only if the command changed them.
      *
      * @param input The user input string.
      * @return The chatbot's response.
      */
     public String getResponse(String input) {
+        String name = Parser.resolveCommand(input);
+        if (name != null && disabledCommands.contains(name)) {
+            return "Sorry, " + name + " is not available here.";
+        }
         try {
             boolean shouldContinue = Parser.handleCommand(input, tasks, ui, storage);
-            storage.saveTasks(tasks.getAllTasks());
+            if (tasks.getVersion() != savedVersion) {
+                storage.saveTasks(tasks.getAllTasks());
+                savedVersion = tasks.getVersion();
+            }
+            if (!shouldContinue) {
+                storage.close();
+                isExited = true;
+            }
             return ui.getLastMessage();
-        } catch (EmptyDescriptionException | UnknownCommandException e) {
+        } catch (ChatterBotException e) {
             return e.getMessage();
         } catch (Exception e) {
             return "An unexpected error occurred: " + e.getMessage();
         }
     }
+
+    /**
+     * Returns whether the user has said goodbye. The storage is closed by then.
+     *
+     * @return {@code true} once an exit command has been handled.
+     */
+    public boolean isExited() {
+        return isExited;
+    }
 }
@@ -0,0 +1,473 @@
+package chatterbot;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.RandomAccess;
+
+import chatterbot.tasks.Deadline;
+import chatterbot.tasks.Event;
+import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskIdSource;
+import chatterbot.tasks.Todo;
+
+/**
+ * A list of tasks stored column by column in primitive arrays instead of as task objects: a type byte,
+ * an id, a done bit and up to two times as minutes since the epoch per task, with every description kept
+ * as UTF-8 in one shared byte arena. A task costs about 30 bytes plus its description, where a task object
+ * with its string and times takes several times that.
+ *
+ * <p>{@link #get(int)} returns a short-lived view of the task. Marking a view as done or not done, or setting
+ * its id, writes through to the list, so the view can be used like any other task until the list is next
+ * structurally modified. Times are kept to the minute, as in the binary storage format.
+ */
+public class ColumnarTaskList extends AbstractList<Task> implements RandomAccess, TaskIdSource {
+    private static final byte TODO_TYPE = 0;
+    private static final byte DEADLINE_TYPE = 1;
+    private static final byte EVENT_TYPE = 2;
+    private static final int MIN_ARENA_BYTES = 64 * 1024;
+
+    private byte[] types;
+    private int[] ids;
+    private long[] firstMinutes; // The due time of a deadline or the start time of an event
+    private long[] secondMinutes; // The end time of an event
+    private int[] descriptionStarts;
+    private int[] descriptionLengths;
+    private final BitSet done = new BitSet();
+    private byte[] arena;
+    private int arenaSize;
+    private long liveDescriptionBytes;
+    private int size;
+
+    /**
+     * Constructs an empty ColumnarTaskList.
+     */
+    public ColumnarTaskList() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty ColumnarTaskList with room for the given number of tasks.
+     *
+     * @param capacity The number of tasks to make room for.
+     */
+    public ColumnarTaskList(int capacity) {
+        int initialCapacity = Math.max(capacity, 1);
+        types = new byte[initialCapacity];
+        ids = new int[initialCapacity];
+        firstMinutes = new long[initialCapacity];
+        secondMinutes = new long[initialCapacity];
+        descriptionStarts = new int[initialCapacity];
+        descriptionLengths = new int[initialCapacity];
+        arena = new byte[initialCapacity * 16];
+    }
+
+    /**
+     * Constructs a ColumnarTaskList holding the given tasks.
+     *
+     * @param tasks The tasks to copy into the columns.
+     */
+    public ColumnarTaskList(Collection<? extends Task> tasks) {
+        this(tasks.size());
+        addAll(tasks);
+    }
+
+    private ColumnarTaskList(ColumnarTaskList other) {
+        types = Arrays.copyOf(other.types, Math.max(other.size, 1));
+        ids = Arrays.copyOf(other.ids, types.length);
+        firstMinutes = Arrays.copyOf(other.firstMinutes, types.length);
+        secondMinutes = Arrays.copyOf(other.secondMinutes, types.length);
+        descriptionStarts = Arrays.copyOf(other.descriptionStarts, types.length);
+        descriptionLengths = Arrays.copyOf(other.descriptionLengths, types.length);
+        done.or(other.done);
+        arena = Arrays.copyOf(other.arena, Math.max(other.arenaSize, 1));
+        arenaSize = other.arenaSize;
+        liveDescriptionBytes = other.liveDescriptionBytes;
+        size = other.size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        String description = new String(arena, descriptionStarts[index], descriptionLengths[index],
+                StandardCharsets.UTF_8);
+        boolean isDone = done.get(index);
+        switch (types[index]) {
+        case DEADLINE_TYPE:
+            return new DeadlineView(this, index, description, isDone,
+                    BinaryTaskFormat.fromEpochMinute(firstMinutes[index]));
+        case EVENT_TYPE:
+            return new EventView(this, index, description, isDone,
+                    BinaryTaskFormat.fromEpochMinute(firstMinutes[index]),
+                    BinaryTaskFormat.fromEpochMinute(secondMinutes[index]));
+        default:
+            return new TodoView(this, index, description, isDone);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces a task. A current view of a task in this list, as when removing tasks moves later ones forward,
+     * is copied column by column and shares its description in the arena. Any other task's description is only
+     * appended to the arena if it differs from the one it replaces.
+     */
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        int row = task instanceof View ? ((View) task).getRowIn(this) : -1;
+        if (row >= 0) {
+            copyRow(row, index);
+            return previous;
+        }
+
+        int previousLength = descriptionLengths[index];
+        store(index, task, true);
+        done.set(index, task.isDone());
+        liveDescriptionBytes -= previousLength;
+        compactArenaIfSparse();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == types.length) {
+            grow(size * 2);
+        }
+        shiftColumns(index, index + 1, size - index);
+        try {
+            store(index, task, false);
+        } catch (RuntimeException e) {
+            shiftColumns(index + 1, index, size - index); // Leave the list as it was
+            throw e;
+        }
+        BitSet moved = done.get(index, size);
+        done.clear(index, size + 1);
+        for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+            done.set(index + 1 + i);
+        }
+        done.set(index, task.isDone());
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Removes a run of tasks with one shift of each column.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            liveDescriptionBytes -= descriptionLengths[i];
+        }
+        shiftColumns(toIndex, fromIndex, size - toIndex);
+        BitSet moved = done.get(toIndex, size);
+        done.clear(fromIndex, size);
+        for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+            done.set(fromIndex + i);
+        }
+        size -= toIndex - fromIndex;
+        modCount++;
+        compactArenaIfSparse();
+    }
+
+    /**
+     * Returns the id of the task at the index without making a view of it.
+     *
+     * @param index The index of the task.
+     * @return The id, or 0 if the task has none.
+     */
+    @Override
+    public int getTaskId(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * Returns an independent list with the same tasks, made by copying the columns.
+     *
+     * @return A copy of this list.
+     */
+    public ColumnarTaskList copy() {
+        return new ColumnarTaskList(this);
+    }
+
+    /**
+     * Returns the number of bytes held by the columns and the description arena, for comparing footprints.
+     *
+     * @return The approximate size of this list's arrays in bytes.
+     */
+    public long getCapacityBytes() {
+        return types.length * (1L + 3 * Integer.BYTES + 2 * Long.BYTES) + arena.length + done.size() / Byte.SIZE;
+    }
+
+    /**
+     * Writes every column of a task except its done bit. Everything that can fail is read from the task before
+     * any column is written, so a failure leaves the columns as they were.
+     *
+     * @param isReplacing Whether the row holds the task being replaced, whose description is kept if it is equal.
+     */
+    private void store(int index, Task task, boolean isReplacing) {
+        byte type = TODO_TYPE;
+        long first = 0;
+        long second = 0;
+        if (task instanceof Deadline) {
+            type = DEADLINE_TYPE;
+            first = BinaryTaskFormat.toEpochMinute(((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            type = EVENT_TYPE;
+            first = BinaryTaskFormat.toEpochMinute(event.getStartTime());
+            second = BinaryTaskFormat.toEpochMinute(event.getEndTime());
+        }
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+
+        types[index] = type;
+        firstMinutes[index] = first;
+        secondMinutes[index] = second;
+        ids[index] = task.getId();
+        liveDescriptionBytes += description.length;
+        if (isReplacing && Arrays.equals(arena, descriptionStarts[index],
+                descriptionStarts[index] + descriptionLengths[index], description, 0, description.length)) {
+            return;
+        }
+        if (arenaSize + description.length > arena.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max((long) arena.length * 2, (long) arenaSize + description.length));
+            arena = Arrays.copyOf(arena, capacity);
+        }
+        System.arraycopy(description, 0, arena, arenaSize, description.length);
+        descriptionStarts[index] = arenaSize;
+        descriptionLengths[index] = description.length;
+        arenaSize += description.length;
+    }
+
+    /**
+     * Copies every column of one row, including its done bit, over another, sharing the description in the arena.
+     */
+    private void copyRow(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        liveDescriptionBytes += descriptionLengths[from] - descriptionLengths[to];
+        types[to] = types[from];
+        ids[to] = ids[from];
+        firstMinutes[to] = firstMinutes[from];
+        secondMinutes[to] = secondMinutes[from];
+        descriptionStarts[to] = descriptionStarts[from];
+        descriptionLengths[to] = descriptionLengths[from];
+        done.set(to, done.get(from));
+    }
+
+    private void shiftColumns(int from, int to, int count) {
+        System.arraycopy(types, from, types, to, count);
+        System.arraycopy(ids, from, ids, to, count);
+        System.arraycopy(firstMinutes, from, firstMinutes, to, count);
+        System.arraycopy(secondMinutes, from, secondMinutes, to, count);
+        System.arraycopy(descriptionStarts, from, descriptionStarts, to, count);
+        System.arraycopy(descriptionLengths, from, descriptionLengths, to, count);
+    }
+
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        firstMinutes = Arrays.copyOf(firstMinutes, capacity);
+        secondMinutes = Arrays.copyOf(secondMinutes, capacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+    }
+
+    /**
+     * Rewrites the arena without the descriptions of removed and replaced tasks once they take up
+     * more than half of it, so repeated edits cannot grow it without bound.
+     */
+    private void compactArenaIfSparse() {
+        if (arenaSize < MIN_ARENA_BYTES || arenaSize <= 2 * liveDescriptionBytes) {
+            return;
+        }
+        byte[] compacted = new byte[(int) Math.max(liveDescriptionBytes * 3 / 2, MIN_ARENA_BYTES)];
+        int compactedSize = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(arena, descriptionStarts[i], compacted, compactedSize, descriptionLengths[i]);
+            descriptionStarts[i] = compactedSize;
+            compactedSize += descriptionLengths[i];
+        }
+        arena = compacted;
+        arenaSize = compactedSize;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Writes a change made through a view back to the columns.
+     */
+    private void writeDone(int index, int expectedModCount, boolean isDone) {
+        checkView(index, expectedModCount);
+        done.set(index, isDone);
+    }
+
+    private void writeId(int index, int expectedModCount, int id) {
+        checkView(index, expectedModCount);
+        ids[index] = id;
+    }
+
+    private int readId(int index) {
+        return ids[index];
+    }
+
+    private void checkView(int index, int expectedModCount) {
+        if (!isCurrentView(index, expectedModCount)) {
+            throw new ConcurrentModificationException("The task list changed after this task was read");
+        }
+    }
+
+    private boolean isCurrentView(int index, int expectedModCount) {
+        return modCount == expectedModCount && index < size;
+    }
+
+    /**
+     * A view of a task held in the columns of a list.
+     */
+    private interface View {
+        /**
+         * Returns the row of the task if this view is of the given list and the list has not been structurally
+         * modified since, or -1 otherwise.
+         */
+        int getRowIn(ColumnarTaskList list);
+    }
+
+    private static final class TodoView extends Todo implements View {
+        private final ColumnarTaskList owner;
+        private final int index;
+        private final int expectedModCount;
+
+        TodoView(ColumnarTaskList owner, int index, String description, boolean isDone) {
+            super(description, false); // Views are short-lived, so sharing their description would only count them
+            this.owner = owner;
+            this.index = index;
+            this.expectedModCount = owner.modCount;
+            this.isDone = isDone;
+            super.setId(owner.readId(index));
+        }
+
+        @Override
+        public void markAsDone() {
+            owner.writeDone(index, expectedModCount, true);
+            super.markAsDone();
+        }
+
+        @Override
+        public void markAsNotDone() {
+            owner.writeDone(index, expectedModCount, false);
+            super.markAsNotDone();
+        }
+
+        @Override
+        public int getRowIn(ColumnarTaskList list) {
+            return owner == list && owner.isCurrentView(index, expectedModCount) ? index : -1;
+        }
+
+        @Override
+        public void setId(int id) {
+            owner.writeId(index, expectedModCount, id);
+            super.setId(id);
+        }
+    }
+
+    private static final class DeadlineView extends Deadline implements View {
+        private final ColumnarTaskList owner;
+        private final int index;
+        private final int expectedModCount;
+
+        DeadlineView(ColumnarTaskList owner, int index, String description, boolean isDone, LocalDateTime by) {
+            super(description, by, false);
+            this.owner = owner;
+            this.index = index;
+            this.expectedModCount = owner.modCount;
+            this.isDone = isDone;
+            super.setId(owner.readId(index));
+        }
+
+        @Override
+        public void markAsDone() {
+            owner.writeDone(index, expectedModCount, true);
+            super.markAsDone();
+        }
+
+        @Override
+        public void markAsNotDone() {
+            owner.writeDone(index, expectedModCount, false);
+            super.markAsNotDone();
+        }
+
+        @Override
+        public int getRowIn(ColumnarTaskList list) {
+            return owner == list && owner.isCurrentView(index, expectedModCount) ? index : -1;
+        }
+
+        @Override
+        public void setId(int id) {
+            owner.writeId(index, expectedModCount, id);
+            super.setId(id);
+        }
+    }
+
+    private static final class EventView extends Event implements View {
+        private final ColumnarTaskList owner;
+        private final int index;
+        private final int expectedModCount;
+
+        EventView(ColumnarTaskList owner, int index, String description, boolean isDone, LocalDateTime from,
+                LocalDateTime to) {
+            super(description, from, to, false);
+            this.owner = owner;
+            this.index = index;
+            this.expectedModCount = owner.modCount;
+            this.isDone = isDone;
+            super.setId(owner.readId(index));
+        }
+
+        @Override
+        public void markAsDone() {
+            owner.writeDone(index, expectedModCount, true);
+            super.markAsDone();
+        }
+
+        @Override
+        public void markAsNotDone() {
+            owner.writeDone(index, expectedModCount, false);
+            super.markAsNotDone();
+        }
+
+        @Override
+        public int getRowIn(ColumnarTaskList list) {
+            return owner == list && owner.isCurrentView(index, expectedModCount) ? index : -1;
+        }
+
+        @Override
+        public void setId(int id) {
+            owner.writeId(index, expectedModCount, id);
+            super.setId(id);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package chatterbot;
+
+import chatterbot.exceptions.ChatterBotException;
+import chatterbot.tasks.TaskList;
+
+/**
+ * Carries out one kind of command. Handlers are registered with {@link Parser#registerCommand(String, CommandHandler)}.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+    /**
+     * Runs the command.
+     *
+     * @param userInput The command as entered, with an abbreviated keyword expanded to the command's full name.
+     * @param tasks     The task list to work on.
+     * @param ui        The user interface for displaying messages.
+     * @param storage   The storage system, for commands that use it directly.
+     * @return {@code true} if the chatbot should continue running, {@code false} if it should exit.
+     * @throws ChatterBotException If the command cannot be carried out. The message is shown to the user.
+     */
+    boolean handle(String userInput, TaskList tasks, Ui ui, Storage storage) throws ChatterBotException;
+}
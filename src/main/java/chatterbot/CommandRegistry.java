@@ -0,0 +1,146 @@
+package chatterbot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps command keywords to their handlers through a trie of command names.
+ *
+ * <p>A keyword resolves to a command if it is the command's name or one of its aliases, or if it is the start
+ * of exactly one command name, so {@code del} finds {@code delete} while {@code de} is ambiguous. Commands
+ * registered as exact, such as {@code bye}, are never abbreviated, but still make their prefixes ambiguous.
+ * Keywords are matched ignoring case, one character at a time, so a miss costs no more than a hit.
+ */
+public class CommandRegistry {
+    private final Node root = new Node();
+    private final Map<String, CommandHandler> handlers = new HashMap<>();
+    private final Set<String> exactNames = new HashSet<>();
+
+    /**
+     * Registers a command that can also be entered as any unambiguous start of its name.
+     *
+     * @param name    The name of the command.
+     * @param handler The handler that carries out the command.
+     */
+    public void register(String name, CommandHandler handler) {
+        String key = name.toLowerCase(Locale.ROOT);
+        assert !key.isEmpty() && key.indexOf(' ') < 0 : "Command names are single words";
+        assert !handlers.containsKey(key) : "Command " + key + " is already registered";
+        handlers.put(key, handler);
+
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getOrAddChild(key.charAt(i));
+            node.addReachableName(key);
+        }
+        assert node.name == null : key + " is already an alias";
+        node.name = key;
+    }
+
+    /**
+     * Registers a command that must be entered in full.
+     *
+     * @param name    The name of the command.
+     * @param handler The handler that carries out the command.
+     */
+    public void registerExact(String name, CommandHandler handler) {
+        register(name, handler);
+        exactNames.add(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Registers another name for a command. Aliases must be entered in full.
+     *
+     * @param alias The other name.
+     * @param name  The name of a registered command.
+     */
+    public void registerAlias(String alias, String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        assert handlers.containsKey(key) : "Command " + key + " is not registered";
+
+        Node node = root;
+        String aliasKey = alias.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < aliasKey.length(); i++) {
+            node = node.getOrAddChild(aliasKey.charAt(i));
+        }
+        assert node.name == null : aliasKey + " is already registered";
+        node.name = key;
+    }
+
+    /**
+     * Returns the name of the command a keyword refers to.
+     *
+     * @param input The text holding the keyword.
+     * @param start The start of the keyword, inclusive.
+     * @param end   The end of the keyword, exclusive.
+     * @return The full name of the command, or {@code null} if the keyword names no command or is ambiguous.
+     */
+    public String resolve(String input, int start, int end) {
+        if (start == end) {
+            return null;
+        }
+        Node node = root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.getChild(Character.toLowerCase(input.charAt(i)));
+        }
+        if (node == null) {
+            return null;
+        }
+        if (node.name != null) {
+            return node.name;
+        }
+        String abbreviated = node.isShared ? null : node.reachableName;
+        return abbreviated != null && !exactNames.contains(abbreviated) ? abbreviated : null;
+    }
+
+    /**
+     * Returns the handler of a command.
+     *
+     * @param name The full name of the command, as returned by {@link #resolve(String, int, int)}.
+     * @return The handler, or {@code null} if no command has the name.
+     */
+    public CommandHandler getHandler(String name) {
+        return handlers.get(name);
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private String name; // The command named by the path to this node, if any
+        private String reachableName; // A command whose name continues through this node
+        private boolean isShared; // Whether more than one command name continues through this node
+
+        Node getChild(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node getOrAddChild(char key) {
+            Node child = getChild(key);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = key;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        void addReachableName(String reachable) {
+            if (reachableName == null) {
+                reachableName = reachable;
+            } else if (!reachableName.equals(reachable)) {
+                isShared = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package chatterbot;
+
+/**
+ * Controls how often storage writes are forced from the OS cache to disk,
+ * trading save latency against how much can be lost in a power failure.
+ */
+public enum FsyncPolicy {
+    /** Forces every write; nothing acknowledged is ever lost. */
+    ALWAYS,
+    /** Forces a write every few saves or at least once a second; a crash may lose the last few saves. */
+    BATCHED,
+    /** Leaves flushing to the OS; fastest, but a crash may lose any recent save. */
+    NEVER;
+
+    /**
+     * Parses a policy name, ignoring case.
+     * If the name is unrecognised, it returns ALWAYS.
+     *
+     * @param policy The policy name.
+     * @return The corresponding FsyncPolicy.
+     */
+    public static FsyncPolicy fromString(String policy) {
+        try {
+            return FsyncPolicy.valueOf(policy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ALWAYS;
+        }
+    }
+}
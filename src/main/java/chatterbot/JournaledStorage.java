@@ -0,0 +1,342 @@
+package chatterbot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskList;
+import chatterbot.tasks.TaskListListener;
+
+/**
+ * Storage that appends every change to a write-ahead journal instead of rewriting the whole storage file.
+ * Once the journal grows past a threshold, it is folded back into the storage file on a background thread.
+ *
+ * <p>The storage file and every journal start with a generation header. A journal is only replayed on top of
+ * the storage file generation it was written against, so a crash at any point of a compaction never
+ * applies the same change twice.
+ */
+public class JournaledStorage extends Storage implements TaskListListener {
+    /** The default number of journal records that triggers a compaction. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final String ADD = "A";
+    private static final String REMOVE = "X";
+    private static final String MARK = "M";
+    private static final String UNMARK = "U";
+
+    private final Path journalPath;
+    private final Path oldJournalPath;
+    private final int compactionThreshold;
+    private final ExecutorService compactor;
+    private final List<String> pendingRecords = new ArrayList<>();
+
+    private FileChannel journalChannel;
+    private long journalBase;
+    private int journalRecordCount;
+    private Future<?> compaction;
+
+    /**
+     * Constructs a JournaledStorage that compacts after {@value #DEFAULT_COMPACTION_THRESHOLD} records.
+     *
+     * @param filePath The path of the storage file. The journal is kept next to it.
+     */
+    public JournaledStorage(String filePath) {
+        this(filePath, DEFAULT_COMPACTION_THRESHOLD, FsyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Constructs a JournaledStorage.
+     *
+     * @param filePath            The path of the storage file. The journal is kept next to it.
+     * @param compactionThreshold The number of journal records that triggers a compaction.
+     * @param fsyncPolicy         How often journal appends and compactions are forced to disk.
+     */
+    public JournaledStorage(String filePath, int compactionThreshold, FsyncPolicy fsyncPolicy) {
+        super(filePath, fsyncPolicy);
+        assert compactionThreshold > 0 : "Compaction threshold must be positive";
+        this.journalPath = Paths.get(filePath + ".journal");
+        this.oldJournalPath = Paths.get(filePath + ".journal.old");
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chatterbot-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the storage file and replays the journals written against it.
+     * If an interrupted compaction is found, it is completed before returning.
+     *
+     * @return A list of tasks loaded from the storage file and journals.
+     */
+    @Override
+    public List<Task> loadTasks() {
+        List<Task> tasks = super.loadTasks();
+        // Tasks saved without ids must get them as they were numbered before the journaled removals
+        TaskList.assignMissingIds(tasks);
+        try {
+            long generation = readGeneration();
+            journalBase = generation;
+
+            boolean hasReplayedOldJournal = false;
+            if (Files.exists(oldJournalPath) && readGenerationHeader(oldJournalPath) == generation) {
+                replay(oldJournalPath, tasks);
+                hasReplayedOldJournal = true;
+            }
+
+            if (Files.exists(journalPath)) {
+                long base = readGenerationHeader(journalPath);
+                if (base == generation || (hasReplayedOldJournal && base == generation + 1)) {
+                    journalRecordCount = replay(journalPath, tasks);
+                    journalBase = base;
+                } else {
+                    Files.delete(journalPath); // Written against a storage file that no longer exists
+                }
+            }
+
+            if (hasReplayedOldJournal) {
+                writeSnapshot(tasks, journalBase + 1);
+                Files.deleteIfExists(oldJournalPath);
+                Files.deleteIfExists(journalPath);
+                journalBase++;
+                journalRecordCount = 0;
+            } else {
+                Files.deleteIfExists(oldJournalPath);
+            }
+        } catch (IOException e) {
+            System.out.println("Error replaying journal: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    @Override
+    public void attach(TaskList tasks) {
+        tasks.setListener(this);
+    }
+
+    @Override
+    public void onTaskAdded(Task task) {
+        pendingRecords.add(ADD + " | " + task.toFileFormat());
+    }
+
+    @Override
+    public void onTaskRemoved(int index) {
+        pendingRecords.add(REMOVE + " | " + index);
+    }
+
+    @Override
+    public void onTaskMarked(int index, boolean isDone) {
+        pendingRecords.add((isDone ? MARK : UNMARK) + " | " + index);
+    }
+
+    /**
+     * Appends the changes made since the last save to the journal.
+     * Nothing is written if the task list has not changed.
+     *
+     * @param tasks The current list of tasks, used if the journal needs compacting.
+     */
+    @Override
+    public void saveTasks(List<Task> tasks) {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+        try {
+            appendPendingRecords();
+            if (journalRecordCount >= compactionThreshold) {
+                startCompaction(tasks);
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the storage file in the given format with every journaled change folded in,
+     * and starts a fresh journal on top of it.
+     *
+     * @param format The format to convert to.
+     * @param tasks  The current list of tasks.
+     * @throws IOException If the storage file cannot be written.
+     */
+    @Override
+    public void migrate(StorageFormat format, List<Task> tasks) throws IOException {
+        awaitCompaction();
+        closeJournal();
+        pendingRecords.clear();
+
+        setFormat(format);
+        writeSnapshot(tasks, journalBase + 1);
+        Files.deleteIfExists(oldJournalPath);
+        Files.deleteIfExists(journalPath);
+        journalBase++;
+        journalRecordCount = 0;
+        countSave();
+    }
+
+    /**
+     * Flushes the journal and waits for any running compaction to finish.
+     */
+    @Override
+    public void close() {
+        try {
+            appendPendingRecords();
+            closeJournal();
+            awaitCompaction();
+        } catch (IOException e) {
+            System.out.println("Error writing journal: " + e.getMessage());
+        } finally {
+            compactor.shutdown();
+        }
+    }
+
+    private void appendPendingRecords() throws IOException {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+
+        StringBuilder records = new StringBuilder();
+        if (journalChannel == null) {
+            boolean isNew = openJournal();
+            if (isNew) {
+                records.append(GENERATION_PREFIX).append(journalBase).append(System.lineSeparator());
+            }
+        }
+        for (String record : pendingRecords) {
+            records.append(record).append(System.lineSeparator());
+        }
+        writeFully(journalChannel, records);
+        if (shouldForce()) {
+            journalChannel.force(false);
+        }
+        countSave();
+        journalRecordCount += pendingRecords.size();
+        pendingRecords.clear();
+    }
+
+    /**
+     * Opens the journal for appending.
+     *
+     * @return {@code true} if the journal did not exist and still needs its header.
+     */
+    private boolean openJournal() throws IOException {
+        Path parent = journalPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        boolean isNew = !Files.exists(journalPath);
+        journalChannel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return isNew;
+    }
+
+    private void closeJournal() throws IOException {
+        if (journalChannel != null) {
+            journalChannel.close();
+            journalChannel = null;
+        }
+    }
+
+    /**
+     * Rotates the journal and folds the rotated records into the storage file on the compactor thread.
+     * Skipped while a previous compaction is still running or did not complete.
+     */
+    private void startCompaction(List<Task> tasks) throws IOException {
+        if ((compaction != null && !compaction.isDone()) || Files.exists(oldJournalPath)) {
+            return;
+        }
+
+        closeJournal();
+        Files.move(journalPath, oldJournalPath, StandardCopyOption.ATOMIC_MOVE);
+        long generation = journalBase + 1;
+        journalBase = generation;
+        journalRecordCount = 0;
+
+        // Marking a task after this point may race with the compactor, but the journal records
+        // mark and unmark as absolute values, so replaying them over the snapshot is still correct.
+        List<Task> snapshot = copyForSaving(tasks);
+        compaction = compactor.submit(() -> {
+            try {
+                writeSnapshot(snapshot, generation);
+                Files.delete(oldJournalPath);
+            } catch (IOException e) {
+                System.out.println("Error compacting journal: " + e.getMessage());
+            }
+        });
+    }
+
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Error compacting journal: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Applies every record of a journal to the tasks, skipping records that cannot be applied,
+     * such as a line torn by a crash mid-write.
+     *
+     * @return The number of records read.
+     */
+    private static int replay(Path journal, List<Task> tasks) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, CHARSET)) {
+            String record;
+            while ((record = reader.readLine()) != null) {
+                if (record.startsWith(GENERATION_PREFIX)) {
+                    continue;
+                }
+                count++;
+                try {
+                    applyRecord(record, tasks);
+                } catch (RuntimeException e) {
+                    System.out.println("Skipping unreadable journal record: " + record);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void applyRecord(String record, List<Task> tasks) {
+        String[] parts = record.split(" \\| ", 2);
+        if (parts.length < 2) {
+            return;
+        }
+
+        switch (parts[0]) {
+        case ADD:
+            Task task = Task.fromFileFormat(parts[1]);
+            if (task != null) {
+                tasks.add(task);
+            }
+            break;
+        case REMOVE:
+            tasks.remove(Integer.parseInt(parts[1]));
+            break;
+        case MARK:
+            tasks.get(Integer.parseInt(parts[1])).markAsDone();
+            break;
+        case UNMARK:
+            tasks.get(Integer.parseInt(parts[1])).markAsNotDone();
+            break;
+        default:
+            break;
+        }
+    }
+}
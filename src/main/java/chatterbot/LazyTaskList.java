@@ -0,0 +1,292 @@
+package chatterbot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskIdSource;
+
+/**
+ * A list of tasks read from a text storage file that only parses a line into a {@link Task} when it is first
+ * accessed. Loading just records where each line starts and ends, so startup cost and memory grow with the
+ * size of the raw file rather than with the number of task objects.
+ *
+ * <p>Tasks added after loading are held directly. Removing tasks keeps the remaining lines unparsed.
+ * Reading a task can store it, so even reads must not run on several threads at once.
+ */
+public class LazyTaskList extends AbstractList<Task> implements RandomAccess, TaskIdSource {
+    private static final int NOT_IN_FILE = -1;
+
+    private final byte[] content;
+    private int[] lineStarts;
+    private int[] lineEnds;
+    private Task[] tasks;
+    private int size;
+
+    private LazyTaskList(byte[] content, int[] lineStarts, int[] lineEnds, Task[] tasks, int size) {
+        this.content = content;
+        this.lineStarts = lineStarts;
+        this.lineEnds = lineEnds;
+        this.tasks = tasks;
+        this.size = size;
+    }
+
+    /**
+     * Reads a text storage file and indexes its task lines without parsing them.
+     *
+     * @param path The file to read.
+     * @return A list over the tasks in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static LazyTaskList open(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+
+        int lineStart = 0;
+        for (int i = 0; i <= content.length; i++) {
+            if (i < content.length && content[i] != '\n') {
+                continue;
+            }
+            int lineEnd = i;
+            if (lineEnd > lineStart && content[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            if (isTaskLine(content, lineStart, lineEnd)) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = lineStart;
+                ends[count] = lineEnd;
+                count++;
+            }
+            lineStart = i + 1;
+        }
+        return new LazyTaskList(content, starts, ends, new Task[starts.length], count);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        Task task = tasks[index];
+        if (task == null) {
+            task = Task.fromFileFormat(readLine(index));
+            tasks[index] = task;
+        }
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        tasks[index] = task;
+        lineStarts[index] = NOT_IN_FILE;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == tasks.length) {
+            int capacity = Math.max(16, size * 2);
+            lineStarts = Arrays.copyOf(lineStarts, capacity);
+            lineEnds = Arrays.copyOf(lineEnds, capacity);
+            tasks = Arrays.copyOf(tasks, capacity);
+        }
+        System.arraycopy(lineStarts, index, lineStarts, index + 1, size - index);
+        System.arraycopy(lineEnds, index, lineEnds, index + 1, size - index);
+        System.arraycopy(tasks, index, tasks, index + 1, size - index);
+        lineStarts[index] = NOT_IN_FILE;
+        tasks[index] = task;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        int moved = size - index - 1;
+        System.arraycopy(lineStarts, index + 1, lineStarts, index, moved);
+        System.arraycopy(lineEnds, index + 1, lineEnds, index, moved);
+        System.arraycopy(tasks, index + 1, tasks, index, moved);
+        size--;
+        tasks[size] = null;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Removes a run of tasks with one shift of the remaining ones, without parsing anything.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int moved = size - toIndex;
+        System.arraycopy(lineStarts, toIndex, lineStarts, fromIndex, moved);
+        System.arraycopy(lineEnds, toIndex, lineEnds, fromIndex, moved);
+        System.arraycopy(tasks, toIndex, tasks, fromIndex, moved);
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(tasks, newSize, size, null);
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Returns whether the task at the index has been parsed yet.
+     *
+     * @param index The index of the task.
+     * @return {@code true} if the task object exists.
+     */
+    public boolean isMaterialized(int index) {
+        checkIndex(index);
+        return tasks[index] != null;
+    }
+
+    /**
+     * Returns the number of tasks that have been parsed so far.
+     *
+     * @return The count of task objects held by this list.
+     */
+    public int countMaterialized() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (tasks[i] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the id of the task at the index, reading it from the file line if the task has not been parsed.
+     * An id that is not plain digits is reported as missing, which only costs parsing the task to find it.
+     *
+     * @param index The index of the task.
+     * @return The id, or 0 if there is none.
+     */
+    @Override
+    public int getTaskId(int index) {
+        checkIndex(index);
+        Task task = tasks[index];
+        if (task != null) {
+            return task.getId();
+        }
+
+        int start = lineStarts[index];
+        int end = lineEnds[index];
+        if (content[start] != '#') {
+            return 0;
+        }
+        long id = 0;
+        int i = start + 1;
+        for (; i < end && content[i] >= '0' && content[i] <= '9'; i++) {
+            id = id * 10 + (content[i] - '0');
+            if (id > Integer.MAX_VALUE) {
+                return 0;
+            }
+        }
+        boolean isIdField = i > start + 1 && i + 2 < end && content[i] == ' ' && content[i + 1] == '|'
+                && content[i + 2] == ' ';
+        return isIdField ? (int) id : 0;
+    }
+
+    /**
+     * Returns the storage file line of the task at the index, without parsing it if it has not been parsed.
+     *
+     * @param index The index of the task.
+     * @return The task in the text storage format.
+     */
+    public String getFileLine(int index) {
+        checkIndex(index);
+        Task task = tasks[index];
+        return task != null ? task.toFileFormat() : readLine(index);
+    }
+
+    /**
+     * Returns an independent list with the same contents that shares the raw file and any parsed tasks,
+     * without parsing anything.
+     *
+     * @return A copy of this list.
+     */
+    public LazyTaskList copy() {
+        return new LazyTaskList(content, Arrays.copyOf(lineStarts, size), Arrays.copyOf(lineEnds, size),
+                Arrays.copyOf(tasks, size), size);
+    }
+
+    private String readLine(int index) {
+        int start = lineStarts[index];
+        return new String(content, start, lineEnds[index] - start, StandardCharsets.UTF_8);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Checks, without allocating, whether {@link Task#fromFileFormat(String)} would produce a task for the line:
+     * it needs a known type and enough {@code " | "}-separated fields, ignoring trailing empty fields,
+     * optionally after a leading id field.
+     */
+    private static boolean isTaskLine(byte[] content, int lineStart, int end) {
+        int start = lineStart;
+        if (start < end && content[start] == '#') {
+            while (start + 2 < end && !(content[start] == ' ' && content[start + 1] == '|'
+                    && content[start + 2] == ' ')) {
+                start++;
+            }
+            start += 3;
+        }
+
+        boolean hasTypeField = end - start >= 4 && content[start + 1] == ' ' && content[start + 2] == '|'
+                && content[start + 3] == ' ';
+        if (!hasTypeField) {
+            return false;
+        }
+
+        int requiredFields;
+        switch (content[start]) {
+        case 'T':
+            requiredFields = 3;
+            break;
+        case 'D':
+            requiredFields = 4;
+            break;
+        case 'E':
+            requiredFields = 5;
+            break;
+        default:
+            return false;
+        }
+
+        int fields = 0;
+        int fieldStart = start;
+        int lastNonEmptyField = 0;
+        for (int i = start; i <= end; i++) {
+            boolean isSeparator = i + 2 < end && content[i] == ' ' && content[i + 1] == '|' && content[i + 2] == ' ';
+            if (i == end || isSeparator) {
+                fields++;
+                if (i > fieldStart) {
+                    lastNonEmptyField = fields;
+                }
+                fieldStart = i + 3;
+                i += 2;
+            }
+        }
+        return lastNonEmptyField >= requiredFields;
+    }
+}
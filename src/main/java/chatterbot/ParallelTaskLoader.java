@@ -0,0 +1,130 @@
+package chatterbot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import chatterbot.tasks.Task;
+
+/**
+ * Loads large text storage files by reading them into memory in one go and parsing newline-aligned chunks
+ * in parallel. The tasks are returned in file order.
+ *
+ * <p>The file is read into a heap buffer rather than mapped, because a mapping lives until it is garbage
+ * collected, and on Windows a mapped file cannot be replaced, which every later save does.
+ */
+public final class ParallelTaskLoader {
+    /** Files smaller than this are faster to read on a single thread. */
+    public static final long PARALLEL_THRESHOLD_BYTES = 1024 * 1024;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelTaskLoader() {
+    }
+
+    /**
+     * Returns whether a file of the given size should be loaded in parallel.
+     *
+     * @param size The file size in bytes.
+     * @return {@code true} if the file is large enough to benefit and small enough to read into one array.
+     */
+    public static boolean shouldLoadInParallel(long size) {
+        return size >= PARALLEL_THRESHOLD_BYTES && size <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Loads all tasks from a text storage file using the common fork-join pool.
+     *
+     * @param path The file to load.
+     * @return The tasks in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<Task> load(Path path) throws IOException {
+        return load(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads all tasks from a text storage file using the given pool.
+     *
+     * @param path The file to load.
+     * @param pool The pool that parses the chunks.
+     * @return The tasks in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<Task> load(Path path, ForkJoinPool pool) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        int[] bounds = findChunkBounds(buffer, pool.getParallelism() * CHUNKS_PER_THREAD);
+
+        List<ForkJoinTask<List<Task>>> chunks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            int start = bounds[i];
+            int end = bounds[i + 1];
+            chunks.add(pool.submit(() -> parseChunk(buffer, start, end)));
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (ForkJoinTask<List<Task>> chunk : chunks) {
+            tasks.addAll(chunk.join());
+        }
+        return tasks;
+    }
+
+    /**
+     * Splits the buffer into roughly equal ranges that each end just after a newline.
+     *
+     * @return The range boundaries, starting with 0 and ending with the buffer limit.
+     */
+    private static int[] findChunkBounds(ByteBuffer buffer, int chunkCount) {
+        int size = buffer.limit();
+        int chunkSize = Math.max(1, size / Math.max(1, chunkCount));
+
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int position = chunkSize;
+        while (position < size) {
+            while (position < size && buffer.get(position - 1) != '\n') {
+                position++;
+            }
+            bounds.add(position);
+            position += chunkSize;
+        }
+        if (bounds.get(bounds.size() - 1) != size) {
+            bounds.add(size);
+        }
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<Task> parseChunk(ByteBuffer buffer, int start, int end) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(start).limit(end);
+        CharBuffer text = StandardCharsets.UTF_8.decode(slice);
+
+        List<Task> tasks = new ArrayList<>();
+        int lineStart = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            if (i < length && text.charAt(i) != '\n') {
+                continue;
+            }
+            int lineEnd = i;
+            if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                Task task = Task.fromFileFormat(text.subSequence(lineStart, lineEnd).toString());
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            lineStart = i + 1;
+        }
+        return tasks;
+    }
+}
@@ -1,9 +1,23 @@
 package chatterbot;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import chatterbot.exceptions.ChatterBotException;
 import chatterbot.exceptions.EmptyDescriptionException;
+import chatterbot.exceptions.InvalidTaskNumberException;
 import chatterbot.exceptions.UnknownCommandException;
 import chatterbot.tasks.*;
 
@@ -11,9 +25,88 @@ import chatterbot.tasks.*;
  * Parses user commands and executes the appropriate actions.
  */
 public class Parser {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int DEFAULT_UPCOMING_COUNT = 5;
+    private static final int MAX_FREE_DAYS = 3660;
+    private static final int MAX_REPORTED_BATCH_ERRORS = 20;
+    private static final String SELECTION_USAGE = "<num>, #<id>, <num>,<num>,..., <from>-<to>, /done or /undone";
+    private static final String FREE_USAGE = "free <duration> [/days N] [/hours S-E] [/step M] [/top K] "
+            + "(e.g., free 4h, free 90m /days 30 /hours 9-17 /top 3)";
+    private static final String BY_MARKER = " /by ";
+    private static final String FROM_MARKER = " /from ";
+    private static final String TO_MARKER = " /to ";
+    private static final String DEADLINE_USAGE = "deadline <desc> /by <date yyyy-MM-dd HHmm>";
+    private static final String EVENT_USAGE = "event <desc> /from <start yyyy-MM-dd HHmm> /to <end yyyy-MM-dd HHmm>";
+    private static final String DUE_USAGE = "due before <date yyyy-MM-dd [HHmm]> (e.g., due before 2025-03-01)";
+
+    private static final CommandRegistry COMMANDS = new CommandRegistry();
+
+    static {
+        COMMANDS.registerExact("bye", (input, tasks, ui, storage) -> {
+            ui.showExitMessage();
+            return false;
+        });
+        COMMANDS.register("list", continuing((input, tasks, ui, storage) -> handleListCommand(input, tasks, ui)));
+        COMMANDS.register("todo", continuing((input, tasks, ui, storage) -> handleTodoCommand(input, tasks, ui)));
+        COMMANDS.register("deadline",
+                continuing((input, tasks, ui, storage) -> handleDeadlineCommand(input, tasks, ui)));
+        COMMANDS.register("event", continuing((input, tasks, ui, storage) -> handleEventCommand(input, tasks, ui)));
+        COMMANDS.register("mark", continuing((input, tasks, ui, storage) -> handleMarkCommand(input, tasks, ui)));
+        COMMANDS.register("unmark", continuing((input, tasks, ui, storage) -> handleUnmarkCommand(input, tasks, ui)));
+        COMMANDS.register("delete", continuing((input, tasks, ui, storage) -> handleDeleteCommand(input, tasks, ui)));
+        COMMANDS.register("find", continuing((input, tasks, ui, storage) -> handleFindCommand(input, tasks, ui)));
+        COMMANDS.register("free", continuing((input, tasks, ui, storage) -> handleFreeCommand(input, tasks, ui)));
+        COMMANDS.register("upcoming",
+                continuing((input, tasks, ui, storage) -> handleUpcomingCommand(input, tasks, ui)));
+        COMMANDS.register("due", continuing((input, tasks, ui, storage) -> handleDueCommand(input, tasks, ui)));
+        COMMANDS.register("convert", continuing(Parser::handleConvertCommand));
+        COMMANDS.register("batch", continuing(Parser::handleBatchCommand));
+        COMMANDS.register("stats", continuing((input, tasks, ui, storage) -> handleStatsCommand(tasks, ui)));
+        COMMANDS.registerAlias("dl", "deadline");
+        COMMANDS.registerAlias("ev", "event");
+        COMMANDS.registerAlias("del", "delete");
+    }
+
+    /**
+     * A command that always lets the chatbot keep running.
+     */
+    @FunctionalInterface
+    private interface CommandAction {
+        void run(String userInput, TaskList tasks, Ui ui, Storage storage) throws ChatterBotException;
+    }
+
+    private static CommandHandler continuing(CommandAction action) {
+        return (userInput, tasks, ui, storage) -> {
+            action.run(userInput, tasks, ui, storage);
+            return true;
+        };
+    }
+
+    /**
+     * Adds a command. It can be entered by its full name or, unless another command starts the same way,
+     * by any start of its name. Commands should be added before the chatbot starts taking input.
+     *
+     * @param name    The name of the command, a single word.
+     * @param handler The handler that carries out the command.
+     */
+    public static void registerCommand(String name, CommandHandler handler) {
+        COMMANDS.register(name, handler);
+    }
+
+    /**
+     * Adds a short name for a command, such as {@code dl} for {@code deadline}.
+     *
+     * @param alias The short name.
+     * @param name  The full name of the command.
+     */
+    public static void registerAlias(String alias, String name) {
+        COMMANDS.registerAlias(alias, name);
+    }
 
     /**
      * Processes the user command and executes the corresponding action.
+     * The keyword is looked up in the command table, so it may be an alias or an unambiguous abbreviation;
+     * it is then replaced by the command's full name before the command runs.
      *
      * @param userInput The user's command input.
      * @param tasks     The task list to be modified.
@@ -21,64 +114,62 @@ public class Parser {
      * @param storage   The storage system to save tasks.
      * @return {@code true} if the chatbot should continue running, {@code false} if it should exit.
      * @throws EmptyDescriptionException If the command requires a description but none is provided.
-     * @throws UnknownCommandException   If the command is not recognized.
+     * @throws UnknownCommandException   If the command is not recognized or the abbreviation is ambiguous.
+     * @throws InvalidTaskNumberException If the command refers to tasks that do not exist.
+     * @throws ChatterBotException       If an added command cannot be carried out.
      */
     public static boolean handleCommand(String userInput, TaskList tasks, Ui ui, Storage storage)
-            throws EmptyDescriptionException, UnknownCommandException {
-
-        // Extract the command keyword from the input
-        String[] parts = userInput.split(" ", 2);
-        String commandString = parts[0];
+            throws ChatterBotException {
+        int keywordEnd = findKeywordEnd(userInput);
+        String name = COMMANDS.resolve(userInput, 0, keywordEnd);
+        if (name == null) {
+            throw new UnknownCommandException();
+        }
+        boolean isFullName = keywordEnd == name.length() && name.regionMatches(true, 0, userInput, 0, keywordEnd);
+        String expandedInput = isFullName ? userInput : name + userInput.substring(keywordEnd);
+        return COMMANDS.getHandler(name).handle(expandedInput, tasks, ui, storage);
+    }
 
-        CommandType command = CommandType.fromString(commandString);
+    /**
+     * Returns the full name of the command the input starts with, resolving aliases and abbreviations.
+     *
+     * @param userInput The user's command input.
+     * @return The name of the command, or {@code null} if the input names no command or is ambiguous.
+     */
+    public static String resolveCommand(String userInput) {
+        return COMMANDS.resolve(userInput, 0, findKeywordEnd(userInput));
+    }
 
-        switch (command) {
-        case BYE:
-            ui.showExitMessage();
-            return false;
+    private static int findKeywordEnd(String userInput) {
+        int keywordEnd = userInput.indexOf(' ');
+        return keywordEnd < 0 ? userInput.length() : keywordEnd;
+    }
 
-        case LIST:
+    /**
+     * Handles listing the tasks, either all at once or one page at a time.
+     *
+     * @param userInput The full user command input, optionally with a page number and page size.
+     * @param tasks     The task list to print.
+     * @param ui        The user interface for displaying messages.
+     */
+    private static void handleListCommand(String userInput, TaskList tasks, Ui ui) {
+        WordScanner words = new WordScanner(userInput, 4);
+        if (!words.hasNext()) {
             tasks.printTasks(ui);
-            break;
-
-        case TODO:
-            handleTodoCommand(userInput, tasks, ui);
-            break;
-
-        case DEADLINE:
-            handleDeadlineCommand(userInput, tasks, ui);
-            break;
-
-        case EVENT:
-            handleEventCommand(userInput, tasks, ui);
-            break;
-
-        case MARK:
-            handleMarkCommand(userInput, tasks, ui);
-            break;
-
-        case UNMARK:
-            handleUnmarkCommand(userInput, tasks, ui);
-            break;
-
-        case DELETE:
-            handleDeleteCommand(userInput, tasks, ui);
-            break;
-
-        case FIND:
-            handleFindCommand(userInput, tasks, ui);
-            break;
-
-        case FREE:
-            handleFreeCommand(userInput, tasks, ui);
-            break;
-
-        case UNKNOWN:
-        default:
-            throw new UnknownCommandException();
+            return;
         }
 
-        return true;
+        int page = parseNumber(words.next());
+        int pageSize = words.hasNext() ? parseNumber(words.next()) : DEFAULT_PAGE_SIZE;
+        if (page < 0 || pageSize < 0) {
+            ui.showMessage("Invalid number format! Use: list [page] [size] (e.g., list 2 50)");
+            return;
+        }
+        if (pageSize < 1) {
+            ui.showMessage("Invalid page size! Use: list [page] [size] (e.g., list 2 50)");
+            return;
+        }
+        tasks.printTasks(ui, page, pageSize);
     }
 
     /**
@@ -101,6 +192,7 @@ public class Parser {
 
     /**
      * Handles the creation of a new Deadline task.
+     * The description and due date are cut out around the first {@code /by} marker, found by a plain search.
      *
      * @param userInput The full user command input.
      * @param tasks     The task list to add the Deadline task to.
@@ -109,17 +201,24 @@ public class Parser {
      */
     private static void handleDeadlineCommand(String userInput, TaskList tasks, Ui ui)
             throws EmptyDescriptionException {
-        String[] parts = userInput.substring(8).split(" /by ");
-        if (parts.length < 2) {
-            throw new EmptyDescriptionException("deadline <desc> /by <date yyyy-MM-dd HHmm>");
+        int byStart = userInput.indexOf(BY_MARKER, 8);
+        if (byStart < 0) {
+            throw new EmptyDescriptionException(DEADLINE_USAGE);
+        }
+        String description = userInput.substring(8, byStart).trim();
+        String by = userInput.substring(byStart + BY_MARKER.length()).trim();
+        if (description.isEmpty() || by.isEmpty()) {
+            throw new EmptyDescriptionException(DEADLINE_USAGE);
         }
-        Task newTask = new Deadline(parts[0].trim(), parts[1].trim());
+        Task newTask = new Deadline(description, by);
         tasks.addTask(newTask);
         ui.printAddedTask(newTask, tasks.size());
     }
 
     /**
      * Handles the creation of a new Event task.
+     * The description and times are cut out around the first {@code /from} marker and the first {@code /to}
+     * marker after it, found by plain searches.
      *
      * @param userInput The full user command input.
      * @param tasks     The task list to add the Event task to.
@@ -127,62 +226,177 @@ public class Parser {
      * @throws EmptyDescriptionException If the Event description, start time, or end time is missing.
      */
     private static void handleEventCommand(String userInput, TaskList tasks, Ui ui) throws EmptyDescriptionException {
-        String[] parts = userInput.substring(5).split(" /from | /to ");
-        if (parts.length < 3) {
-            throw new EmptyDescriptionException("event <desc> /from <start yyyy-MM-dd HHmm> /to <end yyyy-MM-dd HHmm>");
+        int fromStart = userInput.indexOf(FROM_MARKER, 5);
+        int toStart = fromStart < 0 ? -1 : userInput.indexOf(TO_MARKER, fromStart + FROM_MARKER.length());
+        if (toStart < 0) {
+            throw new EmptyDescriptionException(EVENT_USAGE);
+        }
+        String description = userInput.substring(5, fromStart).trim();
+        String from = userInput.substring(fromStart + FROM_MARKER.length(), toStart).trim();
+        String to = userInput.substring(toStart + TO_MARKER.length()).trim();
+        if (description.isEmpty() || from.isEmpty() || to.isEmpty()) {
+            throw new EmptyDescriptionException(EVENT_USAGE);
+        }
+        Event newTask = new Event(description, from, to);
+        if (newTask.getEndTime().isBefore(newTask.getStartTime())) {
+            ui.showMessage("An event cannot end before it starts! " + EVENT_USAGE);
+            return;
         }
-        Task newTask = new Event(parts[0].trim(), parts[1].trim(), parts[2].trim());
         tasks.addTask(newTask);
         ui.printAddedTask(newTask, tasks.size());
     }
 
     /**
-     * Handles marking a task as done.
+     * Handles marking one or more tasks as done.
      *
      * @param userInput The full user command input.
      * @param tasks     The task list containing the tasks.
      * @param ui        The user interface for displaying messages.
+     * @throws InvalidTaskNumberException If the selection does not name existing tasks.
      */
-    private static void handleMarkCommand(String userInput, TaskList tasks, Ui ui) {
-        int taskIdx = Integer.parseInt(userInput.substring(5)) - 1;
-        tasks.markTaskAsDone(taskIdx);
-        ui.showMessage("Nice! I've marked this task as done:\n  " + tasks.getTask(taskIdx));
+    private static void handleMarkCommand(String userInput, TaskList tasks, Ui ui)
+            throws InvalidTaskNumberException {
+        BitSet indices = parseTaskSelection(userInput.substring(4), tasks, "mark " + SELECTION_USAGE
+                + " (e.g., mark 1,4,9)");
+        if (indices.isEmpty()) {
+            ui.showMessage("There are no matching tasks.");
+            return;
+        }
+        if (indices.cardinality() == 1) {
+            int taskIdx = indices.nextSetBit(0);
+            tasks.markTaskAsDone(taskIdx);
+            ui.showMessage("Nice! I've marked this task as done:\n  " + tasks.getTask(taskIdx));
+            return;
+        }
+
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            tasks.markTaskAsDone(i);
+        }
+        ui.showMessage("Nice! I've marked these " + indices.cardinality() + " tasks as done:",
+                indices.stream().mapToObj(i -> "  " + tasks.getTask(i)).iterator());
     }
 
     /**
-     * Handles unmarking a task (marking it as not done).
+     * Handles unmarking one or more tasks (marking them as not done).
      *
      * @param userInput The full user command input.
      * @param tasks     The task list containing the tasks.
      * @param ui        The user interface for displaying messages.
+     * @throws InvalidTaskNumberException If the selection does not name existing tasks.
      */
-    private static void handleUnmarkCommand(String userInput, TaskList tasks, Ui ui) {
-        int taskIdx = Integer.parseInt(userInput.substring(7)) - 1;
-        tasks.markTaskAsNotDone(taskIdx);
-        ui.showMessage("OK, I've marked this task as not done yet:\n  " + tasks.getTask(taskIdx));
+    private static void handleUnmarkCommand(String userInput, TaskList tasks, Ui ui)
+            throws InvalidTaskNumberException {
+        BitSet indices = parseTaskSelection(userInput.substring(6), tasks, "unmark " + SELECTION_USAGE
+                + " (e.g., unmark 2-4)");
+        if (indices.isEmpty()) {
+            ui.showMessage("There are no matching tasks.");
+            return;
+        }
+        if (indices.cardinality() == 1) {
+            int taskIdx = indices.nextSetBit(0);
+            tasks.markTaskAsNotDone(taskIdx);
+            ui.showMessage("OK, I've marked this task as not done yet:\n  " + tasks.getTask(taskIdx));
+            return;
+        }
+
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            tasks.markTaskAsNotDone(i);
+        }
+        ui.showMessage("OK, I've marked these " + indices.cardinality() + " tasks as not done yet:",
+                indices.stream().mapToObj(i -> "  " + tasks.getTask(i)).iterator());
     }
 
     /**
-     * Handles deleting a task from the task list.
+     * Handles deleting one or more tasks from the task list.
+     * Several tasks are removed together, so the remaining tasks are only moved once.
      *
      * @param userInput The full user command input.
-     * @param tasks     The task list from which the task should be removed.
+     * @param tasks     The task list from which the tasks should be removed.
      * @param ui        The user interface for displaying messages.
+     * @throws InvalidTaskNumberException If the selection does not name existing tasks.
      */
-    private static void handleDeleteCommand(String userInput, TaskList tasks, Ui ui) {
-        try {
-            int taskIdx = Integer.parseInt(userInput.substring(7)) - 1;
-            Task removedTask = tasks.removeTask(taskIdx);
-            ui.showMessage("Noted. I've removed this task:\n  " + removedTask
-                    + "\nNow you have " + tasks.size() + " tasks in the list.");
-        } catch (NumberFormatException e) {
-            System.out.println("Please specify a valid task number to delete.");
+    private static void handleDeleteCommand(String userInput, TaskList tasks, Ui ui)
+            throws InvalidTaskNumberException {
+        BitSet indices = parseTaskSelection(userInput.substring(6), tasks, "delete " + SELECTION_USAGE
+                + " (e.g., delete /done)");
+        if (indices.isEmpty()) {
+            ui.showMessage("There are no matching tasks.");
+            return;
+        }
+        List<Task> removedTasks = tasks.removeTasks(indices);
+        String remaining = "Now you have " + tasks.size() + " tasks in the list.";
+        if (removedTasks.size() == 1) {
+            ui.showMessage("Noted. I've removed this task:\n  " + removedTasks.get(0) + "\n" + remaining);
+            return;
+        }
+
+        ui.showMessage("Noted. I've removed these " + removedTasks.size() + " tasks:",
+                Stream.concat(removedTasks.stream().map(task -> "  " + task), Stream.of(remaining)).iterator());
+    }
+
+    /**
+     * Parses which tasks a command applies to: task numbers, task ids and ranges of task numbers separated by
+     * commas (e.g., 2, #12, 1,4,#9 or 3-500), or {@code /done} or {@code /undone} for every task with that status.
+     * Unlike task numbers, ids stay the same when earlier tasks are deleted.
+     * The selection is read in one pass over the text, and a malformed number is reported without an exception.
+     *
+     * @param selection The text after the command word.
+     * @param tasks     The task list the numbers and ids refer to.
+     * @param usage     The usage hint to show if the selection is invalid.
+     * @return The zero-based indices of the selected tasks. A status filter may select none.
+     * @throws InvalidTaskNumberException If the selection is malformed or names a task that does not exist.
+     */
+    private static BitSet parseTaskSelection(String selection, TaskList tasks, String usage)
+            throws InvalidTaskNumberException {
+        String trimmedSelection = selection.trim();
+        BitSet indices = new BitSet();
+        if (trimmedSelection.equals("/done") || trimmedSelection.equals("/undone")) {
+            boolean isDone = trimmedSelection.equals("/done");
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.getTask(i).isDone() == isDone) {
+                    indices.set(i);
+                }
+            }
+            return indices;
         }
+
+        int end = trimmedSelection.length();
+        while (end > 0 && trimmedSelection.charAt(end - 1) == ',') {
+            end--; // Trailing commas add nothing
+        }
+        int itemStart = 0;
+        do {
+            int itemEnd = trimmedSelection.indexOf(',', itemStart);
+            if (itemEnd < 0 || itemEnd > end) {
+                itemEnd = end;
+            }
+            String item = trimmedSelection.substring(itemStart, itemEnd).trim();
+            if (item.startsWith("#")) {
+                int id = parseNumber(item, 1, item.length());
+                int index = id < 0 ? -1 : tasks.indexOfId(id);
+                if (index < 0) {
+                    throw new InvalidTaskNumberException(usage, tasks.size());
+                }
+                indices.set(index);
+            } else {
+                int dash = item.indexOf('-');
+                int first = parseNumber(dash < 0 ? item : item.substring(0, dash).trim());
+                int last = dash < 0 ? first : parseNumber(item.substring(dash + 1).trim());
+                if (first < 1 || last < first || last > tasks.size()) {
+                    throw new InvalidTaskNumberException(usage, tasks.size());
+                }
+                indices.set(first - 1, last);
+            }
+            itemStart = itemEnd + 1;
+        } while (itemStart <= end);
+        return indices;
     }
 
     /**
      * Handles the "find" command by searching for tasks containing the specified keyword.
      * If no matching tasks are found, an appropriate message is displayed.
+     * {@code find /word <words>} matches whole words and {@code find /prefix <prefix>} matches word starts,
+     * both through the keyword index; a plain keyword matches any substring.
      *
      * @param userInput The full user command input containing the search keyword.
      * @param tasks     The task list to search for matching tasks.
@@ -196,35 +410,369 @@ public class Parser {
             throw new EmptyDescriptionException("find");
         }
 
-        String matchingTasks = tasks.findTasks(keyword).stream()
-                .map(task -> (tasks.getAllTasks().indexOf(task) + 1) + ". " + task)
-                .collect(Collectors.joining("\n"));
+        List<IndexedTask> results;
+        if (keyword.startsWith("/word ")) {
+            results = tasks.findTasksByWords(keyword.substring(6).trim());
+        } else if (keyword.startsWith("/prefix ")) {
+            results = tasks.findTasksByPrefix(keyword.substring(8).trim());
+        } else {
+            results = tasks.findTasks(keyword);
+        }
+
+        String matchingTasks = joinLines(results);
 
         ui.showMessage(matchingTasks.isEmpty() ? "No matching tasks found."
                 : "Here are the matching tasks in your list:\n" + matchingTasks);
     }
 
     /**
-     * Handles the "free" command to find an available time slot of the specified duration.
+     * Handles the "free" command to find available time slots of the specified duration.
+     * The duration is given in hours and/or minutes (e.g., 4h, 90m, 1h30m), optionally followed by
+     * {@code /days N} to search further ahead, {@code /hours S-E} to change the daily window,
+     * {@code /step M} to round start times to M minutes, and {@code /top K} to list several slots.
      *
      * @param userInput The user's command input.
      * @param tasks     The task list to check for free time slots.
      * @param ui        The user interface to display messages.
      */
     private static void handleFreeCommand(String userInput, TaskList tasks, Ui ui) {
-        try {
-            String[] parts = userInput.split(" ");
-            if (parts.length < 2 || !parts[1].endsWith("h")) {
-                ui.showMessage("Invalid format! Use: free <hours> (e.g., free 4h)");
+        WordScanner words = new WordScanner(userInput, 4);
+        Duration duration = words.hasNext() ? parseDuration(words.next()) : null;
+        if (duration == null) {
+            ui.showMessage("Invalid format! Use: " + FREE_USAGE);
+            return;
+        }
+
+        FreeTimeOptions defaults = FreeTimeOptions.DEFAULT;
+        int days = defaults.getDays();
+        int dayStartHour = defaults.getDayStartHour();
+        int dayEndHour = defaults.getDayEndHour();
+        int stepMinutes = defaults.getStepMinutes();
+        int limit = defaults.getLimit();
+        while (words.hasNext()) {
+            String option = words.next();
+            if (!words.hasNext()) {
+                ui.showMessage("Invalid format! Use: " + FREE_USAGE);
+                return;
+            }
+            String value = words.next();
+            boolean isNumber;
+            switch (option) {
+            case "/days":
+                days = parseNumber(value);
+                isNumber = days >= 0;
+                break;
+            case "/hours":
+                int dash = value.indexOf('-');
+                dayStartHour = parseNumber(value, 0, dash < 0 ? value.length() : dash);
+                dayEndHour = dash < 0 ? -1 : parseNumber(value, dash + 1, value.length());
+                isNumber = dayStartHour >= 0 && (dash < 0 || dayEndHour >= 0);
+                break;
+            case "/step":
+                stepMinutes = parseNumber(value);
+                isNumber = stepMinutes >= 0;
+                break;
+            case "/top":
+                limit = parseNumber(value);
+                isNumber = limit >= 0;
+                break;
+            default:
+                ui.showMessage("Unknown option " + option + "! Use: " + FREE_USAGE);
                 return;
             }
+            if (!isNumber) {
+                ui.showMessage("Invalid number format! Use: " + FREE_USAGE);
+                return;
+            }
+        }
+
+        boolean hasValidHours = dayStartHour >= 0 && dayStartHour < dayEndHour && dayEndHour <= 24;
+        if (days < 1 || days > MAX_FREE_DAYS || !hasValidHours || stepMinutes < 1 || limit < 1) {
+            ui.showMessage("Invalid option value! Days must be 1 to " + MAX_FREE_DAYS
+                    + ", hours within 0-24 (e.g., 9-17), and step and top positive.");
+            return;
+        }
+
+        FreeTimeOptions options = new FreeTimeOptions(days, dayStartHour, dayEndHour, stepMinutes, limit);
+        ui.showMessage(tasks.findFreeTime(duration, options, LocalDateTime.now()));
+    }
+
+    /**
+     * Parses a positive duration written in hours and/or minutes, such as 4h, 90m or 1h30m.
+     *
+     * @return The duration, or {@code null} if the text is not a valid positive duration.
+     */
+    private static Duration parseDuration(String text) {
+        int hoursEnd = text.indexOf('h');
+        int minutesStart = hoursEnd < 0 ? 0 : hoursEnd + 1;
+        boolean hasMinutes = minutesStart < text.length();
+        if (hasMinutes && text.charAt(text.length() - 1) != 'm') {
+            return null;
+        }
+
+        int hours = hoursEnd < 0 ? 0 : parseNumber(text, 0, hoursEnd);
+        int minutes = hasMinutes ? parseNumber(text, minutesStart, text.length() - 1) : 0;
+        if (hours < 0 || minutes < 0 || (hoursEnd < 0 && !hasMinutes)) {
+            return null;
+        }
+        Duration duration = Duration.ofHours(hours).plusMinutes(minutes);
+        return duration.isZero() || duration.toDays() > MAX_FREE_DAYS ? null : duration;
+    }
+
+    /**
+     * Handles the "upcoming" command by listing the unfinished deadlines and events that are due next.
+     *
+     * @param userInput The user's command input, optionally with the number of tasks to show.
+     * @param tasks     The task list to search.
+     * @param ui        The user interface to display messages.
+     */
+    private static void handleUpcomingCommand(String userInput, TaskList tasks, Ui ui) {
+        String countText = userInput.substring(8).trim();
+        int count = countText.isEmpty() ? DEFAULT_UPCOMING_COUNT : parseNumber(countText);
+        if (count < 0) {
+            ui.showMessage("Invalid number format! Use: upcoming [count] (e.g., upcoming 10)");
+            return;
+        }
+        if (count < 1) {
+            ui.showMessage("Invalid count! Use: upcoming [count] (e.g., upcoming 10)");
+            return;
+        }
+
+        List<IndexedTask> upcomingTasks = tasks.findUpcomingTasks(LocalDateTime.now(), count);
+        ui.showMessage(upcomingTasks.isEmpty() ? "Nothing is coming up!"
+                : "Here are your upcoming tasks:\n" + joinLines(upcomingTasks));
+    }
+
+    /**
+     * Handles the "due before" command by listing the unfinished deadlines and events due before a date,
+     * including overdue ones.
+     *
+     * @param userInput The user's command input, with a date (yyyy-MM-dd) or time (yyyy-MM-dd HHmm).
+     * @param tasks     The task list to search.
+     * @param ui        The user interface to display messages.
+     */
+    private static void handleDueCommand(String userInput, TaskList tasks, Ui ui) {
+        String arguments = userInput.substring(3).trim();
+        if (!arguments.startsWith("before ")) {
+            ui.showMessage("Invalid format! Use: " + DUE_USAGE);
+            return;
+        }
+
+        String dateText = arguments.substring(7).trim();
+        LocalDateTime before;
+        try {
+            before = dateText.length() == 10 ? LocalDate.parse(dateText).atStartOfDay()
+                    : DateTimeFormats.parseStorage(dateText);
+        } catch (DateTimeParseException e) {
+            ui.showMessage("Invalid date format! Use: " + DUE_USAGE);
+            return;
+        }
+
+        List<IndexedTask> dueTasks = tasks.findTasksDueBefore(before);
+        String time = before.format(DateTimeFormats.DISPLAY);
+        ui.showMessage(dueTasks.isEmpty() ? "Nothing is due before " + time + "!"
+                : "Here are the tasks due before " + time + ":\n" + joinLines(dueTasks));
+    }
+
+    private static String joinLines(List<IndexedTask> tasks) {
+        return tasks.stream()
+                .map(IndexedTask::toString)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Handles the "convert" command by rewriting the storage file in the requested format.
+     * Later saves keep using the new format.
+     *
+     * @param userInput The user's command input.
+     * @param tasks     The task list to write.
+     * @param ui        The user interface to display messages.
+     * @param storage   The storage system to convert.
+     * @throws EmptyDescriptionException If no format is given.
+     */
+    private static void handleConvertCommand(String userInput, TaskList tasks, Ui ui, Storage storage)
+            throws EmptyDescriptionException {
+        String formatName = userInput.substring(7).trim();
+        if (formatName.isEmpty()) {
+            throw new EmptyDescriptionException("convert <text|binary>");
+        }
+        if (!formatName.equalsIgnoreCase(StorageFormat.TEXT.name())
+                && !formatName.equalsIgnoreCase(StorageFormat.BINARY.name())) {
+            ui.showMessage("Unknown format! Use: convert <text|binary>");
+            return;
+        }
+
+        StorageFormat format = StorageFormat.fromString(formatName);
+        try {
+            storage.migrate(format, tasks.getAllTasks());
+            ui.showMessage("Done! Your tasks are now stored in " + formatName.toLowerCase() + " format.");
+        } catch (IOException e) {
+            ui.showMessage("Sorry, I couldn't convert your tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles the "batch" command by running every command in a file, one per line.
+     * The replies to the individual commands are not shown. A failing command is reported with its line number
+     * and the batch carries on. Because the whole batch is one command, the tasks are saved once at the end
+     * rather than after every line. Blank lines and lines starting with # are skipped.
+     *
+     * @param userInput The user's command input, with the path of the command file.
+     * @param tasks     The task list to run the commands on.
+     * @param ui        The user interface to display the summary.
+     * @param storage   The storage system, for commands that use it.
+     * @throws EmptyDescriptionException If no file is given.
+     */
+    private static void handleBatchCommand(String userInput, TaskList tasks, Ui ui, Storage storage)
+            throws EmptyDescriptionException {
+        String fileName = userInput.substring(5).trim();
+        if (fileName.isEmpty()) {
+            throw new EmptyDescriptionException("batch <file>");
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Path.of(fileName), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException | InvalidPathException e) {
+            ui.showMessage("Could not find " + fileName + ".");
+            return;
+        } catch (IOException e) {
+            ui.showMessage("Could not read " + fileName + ": " + e.getMessage());
+            return;
+        }
+
+        Ui batchUi = new Ui(true);
+        StringBuilder errors = new StringBuilder();
+        int commandCount = 0;
+        int errorCount = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < lines.size(); i++) {
+            String command = lines.get(i).trim();
+            if (command.isEmpty() || command.startsWith("#")) {
+                continue;
+            }
+            commandCount++;
+            String error = runBatchCommand(command, tasks, batchUi, storage);
+            if (error != null) {
+                errorCount++;
+                if (errorCount <= MAX_REPORTED_BATCH_ERRORS) {
+                    errors.append("\nLine ").append(i + 1).append(": ").append(error);
+                }
+            }
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+
+        StringBuilder summary = new StringBuilder("Ran ").append(commandCount).append(" commands in ")
+                .append(elapsedNanos / 1_000_000).append(" ms (")
+                .append(Math.round(commandCount * 1e9 / elapsedNanos)).append(" commands/s).");
+        if (errorCount > 0) {
+            summary.append(' ').append(errorCount).append(" failed:").append(errors);
+            if (errorCount > MAX_REPORTED_BATCH_ERRORS) {
+                summary.append("\n... and ").append(errorCount - MAX_REPORTED_BATCH_ERRORS).append(" more");
+            }
+        }
+        ui.showMessage(summary.toString());
+    }
+
+    /**
+     * Handles the "stats" command by showing how many tasks there are and, if descriptions are pooled,
+     * how much memory sharing them has saved.
+     *
+     * @param tasks The task list to describe.
+     * @param ui    The user interface to display the statistics.
+     */
+    private static void handleStatsCommand(TaskList tasks, Ui ui) {
+        int doneCount = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.getTask(i).isDone()) {
+                doneCount++;
+            }
+        }
+
+        DescriptionPool pool = DescriptionPool.getShared();
+        String sharing = pool == null ? "Description sharing is off."
+                : "Description sharing: " + pool.size() + " distinct descriptions, "
+                        + pool.getSharedCount() + " duplicates shared, about "
+                        + (pool.getSavedBytes() + 1023) / 1024 + " KiB saved.";
+        ui.showMessage("You have " + tasks.size() + " tasks in the list, " + doneCount + " of them done.\n"
+                + sharing);
+    }
+
+    /**
+     * Runs one command of a batch.
+     *
+     * @return A description of the failure, or {@code null} if the command ran.
+     */
+    private static String runBatchCommand(String command, TaskList tasks, Ui ui, Storage storage) {
+        String name = COMMANDS.resolve(command, 0, findKeywordEnd(command));
+        if ("bye".equals(name) || "batch".equals(name)) {
+            return name + " cannot be used in a batch";
+        }
+
+        try {
+            handleCommand(command, tasks, ui, storage);
+            return null;
+        } catch (UnknownCommandException e) {
+            return "Unknown command: " + command;
+        } catch (Exception e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            return message.lines().findFirst().orElse(message);
+        }
+    }
+
+    private static int parseNumber(String text) {
+        return parseNumber(text, 0, text.length());
+    }
+
+    /**
+     * Parses a non-negative decimal number from part of the text without creating a substring or throwing.
+     *
+     * @return The number, or -1 if the part is empty, holds anything but digits or does not fit in an int.
+     */
+    private static int parseNumber(String text, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) value;
+    }
 
-            int hours = Integer.parseInt(parts[1].replace("h", ""));
-            String freeSlot = tasks.findFreeTime(hours);
-            ui.showMessage(freeSlot);
+    /**
+     * Reads the whitespace-separated words of a command one at a time in a single pass over the text.
+     */
+    private static final class WordScanner {
+        private final String text;
+        private int position;
 
-        } catch (NumberFormatException e) {
-            ui.showMessage("Invalid number format! Use: free <hours> (e.g., free 4h)");
+        WordScanner(String text, int start) {
+            this.text = text;
+            this.position = start;
+        }
+
+        boolean hasNext() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length();
+        }
+
+        String next() {
+            hasNext();
+            int start = position;
+            while (position < text.length() && !Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return text.substring(start, position);
         }
     }
 }
@@ -1,33 +1,181 @@
 package chatterbot;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import chatterbot.tasks.PersistentTaskVector;
 import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskList;
 
 /**
  * Handles reading and writing tasks to a file for persistence.
  */
 public class Storage {
+    /** Rewrites the whole storage file on every save. */
+    public static final String SNAPSHOT_MODE = "snapshot";
+    /** Appends each change to a journal and folds it into the storage file in the background. */
+    public static final String JOURNAL_MODE = "journal";
+    /** Rewrites the whole storage file on a background thread, coalescing bursts of saves. */
+    public static final String ASYNC_MODE = "async";
+
+    protected static final Charset CHARSET = StandardCharsets.UTF_8;
+    /** Starts the optional first line of a text storage file or journal that records its generation. */
+    protected static final String GENERATION_PREFIX = "# gen ";
+
+    private static final int WRITE_CHUNK_CHARS = 64 * 1024;
+    private static final int FSYNC_BATCH_SIZE = 32;
+    private static final long FSYNC_BATCH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final String filePath;
+    private final FsyncPolicy fsyncPolicy;
+    private final AtomicLong saveCount = new AtomicLong();
+    private volatile StorageFormat format = StorageFormat.TEXT;
+    private boolean isLazyLoading;
+    private boolean isColumnarLoading;
+    private int writesSinceForce;
+    private long lastForceNanos = System.nanoTime();
 
     /**
-     * Constructs a Storage instance.
+     * Constructs a Storage instance that forces every save to disk.
      *
      * @param filePath The path of the file used for storage.
      */
     public Storage(String filePath) {
+        this(filePath, FsyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Constructs a Storage instance.
+     *
+     * @param filePath    The path of the file used for storage.
+     * @param fsyncPolicy How often writes are forced to disk.
+     */
+    public Storage(String filePath, FsyncPolicy fsyncPolicy) {
         this.filePath = filePath;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Creates the storage backend for the given mode.
+     * Unrecognised modes fall back to {@link #SNAPSHOT_MODE}.
+     * The fsync policy is read from the {@code chatterbot.storage.fsync} system property, the format for new
+     * storage files from {@code chatterbot.storage.format}, lazy loading from {@code chatterbot.storage.lazy},
+     * columnar loading from {@code chatterbot.storage.columnar}, and the staleness bound of {@link #ASYNC_MODE}
+     * from {@code chatterbot.storage.maxStalenessMs}.
+     *
+     * @param mode     The storage mode, e.g. {@link #JOURNAL_MODE}.
+     * @param filePath The path of the file used for storage.
+     * @return A storage instance for the mode.
+     */
+    public static Storage forMode(String mode, String filePath) {
+        FsyncPolicy fsyncPolicy = FsyncPolicy.fromString(System.getProperty("chatterbot.storage.fsync", ""));
+        Storage storage;
+        if (JOURNAL_MODE.equals(mode)) {
+            storage = new JournaledStorage(filePath, JournaledStorage.DEFAULT_COMPACTION_THRESHOLD, fsyncPolicy);
+        } else if (ASYNC_MODE.equals(mode)) {
+            storage = new AsyncStorage(filePath,
+                    Long.getLong("chatterbot.storage.maxStalenessMs", AsyncStorage.DEFAULT_MAX_STALENESS_MS),
+                    fsyncPolicy);
+        } else {
+            storage = new Storage(filePath, fsyncPolicy);
+        }
+        storage.setFormat(StorageFormat.fromString(System.getProperty("chatterbot.storage.format", "")));
+        storage.setLazyLoading(Boolean.getBoolean("chatterbot.storage.lazy"));
+        storage.setColumnarLoading(Boolean.getBoolean("chatterbot.storage.columnar"));
+        return storage;
+    }
+
+    /**
+     * Returns the format used when writing the storage file.
+     *
+     * @return The current storage format.
+     */
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format used when writing the storage file.
+     * Loading an existing storage file replaces this with the format the file is in.
+     *
+     * @param format The storage format to write.
+     */
+    public void setFormat(StorageFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Sets whether text storage files are loaded lazily, parsing each task only when it is first accessed.
+     *
+     * @param isLazyLoading {@code true} to load tasks lazily.
+     * @see LazyTaskList
+     */
+    public void setLazyLoading(boolean isLazyLoading) {
+        this.isLazyLoading = isLazyLoading;
+    }
+
+    /**
+     * Sets whether tasks are loaded into a {@link ColumnarTaskList}, which keeps them in primitive arrays
+     * instead of as task objects. This takes precedence over lazy loading.
+     *
+     * @param isColumnarLoading {@code true} to load tasks into columns.
+     */
+    public void setColumnarLoading(boolean isColumnarLoading) {
+        this.isColumnarLoading = isColumnarLoading;
+    }
+
+    /**
+     * Returns the path of the storage file.
+     *
+     * @return The storage file path.
+     */
+    protected String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Returns the number of writes this storage has made to disk.
+     *
+     * @return The number of completed saves.
+     */
+    public long getSaveCount() {
+        return saveCount.get();
+    }
+
+    /**
+     * Records that a write to disk has completed.
+     */
+    protected void countSave() {
+        saveCount.incrementAndGet();
+    }
+
+    /**
+     * Attaches this storage to the task list it persists.
+     * Snapshot storage writes whole lists on save, so it needs no hooks.
+     *
+     * @param tasks The task list that will be saved through this storage.
+     */
+    public void attach(TaskList tasks) {
     }
 
     /**
      * Saves the current list of tasks to the storage file.
+     * The previous contents of the file stay intact until the new contents are completely written.
      *
      * @param tasks The list of tasks to save.
      */
@@ -36,35 +184,78 @@ public class Storage {
         assert tasks != null : "Task list to be saved cannot be null";
 
         try {
-            File file = new File(filePath);
-            file.getParentFile().mkdirs(); // Create directory if it doesn’t exist
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-
-            for (Task task : tasks) {
-                writer.write(task.toFileFormat());
-                writer.newLine();
-            }
-            writer.close();
+            writeSnapshot(tasks, 0);
+            countSave();
         } catch (IOException e) {
             System.out.println("Error saving chatterbot.tasks: " + e.getMessage());
         }
     }
 
+    /**
+     * Rewrites the storage file in the given format, which is then used for all later saves.
+     *
+     * @param format The format to convert to.
+     * @param tasks  The current list of tasks.
+     * @throws IOException If the storage file cannot be written.
+     */
+    public void migrate(StorageFormat format, List<Task> tasks) throws IOException {
+        setFormat(format);
+        writeSnapshot(tasks, 0);
+        countSave();
+    }
+
     /**
      * Loads tasks from the storage file.
+     * If columnar loading is enabled, tasks are read into a {@link ColumnarTaskList}.
+     * If lazy loading is enabled, text files are only indexed, and tasks are parsed when first accessed.
+     * Otherwise, large text files are parsed in parallel by {@link ParallelTaskLoader}.
      *
      * @return A list of tasks loaded from the file.
      */
     public List<Task> loadTasks() {
         assert filePath != null : "File path for storage cannot be null";
 
-        List<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
         if (!file.exists()) {
-            return tasks;
+            return new ArrayList<>();
         }
         try {
-            BufferedReader reader = new BufferedReader(new FileReader(file));
+            Path path = file.toPath();
+            if (BinaryTaskFormat.isBinary(path)) {
+                format = StorageFormat.BINARY;
+                return isColumnarLoading ? BinaryTaskFormat.read(path, ColumnarTaskList::new)
+                        : BinaryTaskFormat.read(path);
+            }
+            format = StorageFormat.TEXT;
+            if (isColumnarLoading) {
+                return readTextFile(path, new ColumnarTaskList());
+            }
+            if (isLazyLoading) {
+                return LazyTaskList.open(path);
+            }
+            if (ParallelTaskLoader.shouldLoadInParallel(Files.size(path))) {
+                return ParallelTaskLoader.load(path);
+            }
+            return readTextFile(path);
+        } catch (IOException e) {
+            System.out.println("Error loading chatterbot.tasks: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Reads a text storage file line by line on the calling thread.
+     *
+     * @param path The file to read.
+     * @return The tasks in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    static List<Task> readTextFile(Path path) throws IOException {
+        return readTextFile(path, new ArrayList<>());
+    }
+
+    private static List<Task> readTextFile(Path path, List<Task> tasks) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, CHARSET)) {
             String str;
             while ((str = reader.readLine()) != null) {
                 Task task = Task.fromFileFormat(str);
@@ -72,10 +263,174 @@ public class Storage {
                     tasks.add(task);
                 }
             }
-            reader.close();
-        } catch (IOException e) {
-            System.out.println("Error loading chatterbot.tasks: " + e.getMessage());
         }
         return tasks;
     }
+
+    /**
+     * Copies a task list so it can be saved after the caller goes on to modify the original.
+     * Lazily loaded lists are copied without parsing their tasks, and columnar lists without creating any.
+     * Snapshots never change, so they are kept as they are.
+     *
+     * @param tasks The tasks to copy.
+     * @return An independent list with the same tasks.
+     */
+    protected static List<Task> copyForSaving(List<Task> tasks) {
+        if (tasks instanceof PersistentTaskVector) {
+            return tasks;
+        }
+        if (tasks instanceof LazyTaskList) {
+            return ((LazyTaskList) tasks).copy();
+        }
+        if (tasks instanceof ColumnarTaskList) {
+            return ((ColumnarTaskList) tasks).copy();
+        }
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Flushes any outstanding writes and releases resources held by this storage.
+     * Snapshot storage writes synchronously, so there is nothing to do.
+     */
+    public void close() {
+    }
+
+    /**
+     * Writes the tasks to a sibling temporary file and atomically moves it over the storage file,
+     * so a crash midway never leaves a half-written storage file behind.
+     * The temporary file is forced to disk before the move as the fsync policy allows.
+     *
+     * @param tasks      The tasks to write.
+     * @param generation The storage generation to record, or 0 to record none.
+     * @throws IOException If the file cannot be written.
+     */
+    protected void writeSnapshot(List<Task> tasks, long generation) throws IOException {
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        boolean isForced = shouldForce();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == StorageFormat.BINARY) {
+                BinaryTaskFormat.write(channel, tasks, generation);
+            } else {
+                writeText(channel, tasks, generation);
+            }
+            if (isForced) {
+                channel.force(false);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (isForced) {
+            forceDirectory(target.getParent());
+        }
+    }
+
+    /**
+     * Reads the generation recorded in the storage file.
+     *
+     * @return The generation, or 0 if the file is missing or records none.
+     * @throws IOException If the file cannot be read.
+     */
+    protected long readGeneration() throws IOException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        if (BinaryTaskFormat.isBinary(path)) {
+            return BinaryTaskFormat.readGeneration(path);
+        }
+        return readGenerationHeader(path);
+    }
+
+    /**
+     * Reads the generation line at the top of a text storage file or journal.
+     *
+     * @param path The file to read.
+     * @return The generation, or 0 if the file is missing or has no generation line.
+     * @throws IOException If the file cannot be read.
+     */
+    protected static long readGenerationHeader(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, CHARSET)) {
+            String firstLine = reader.readLine();
+            if (firstLine == null || !firstLine.startsWith(GENERATION_PREFIX)) {
+                return 0;
+            }
+            return Long.parseLong(firstLine.substring(GENERATION_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeText(FileChannel channel, List<Task> tasks, long generation) throws IOException {
+        StringBuilder chunk = new StringBuilder();
+        if (generation > 0) {
+            chunk.append(GENERATION_PREFIX).append(generation).append(System.lineSeparator());
+        }
+        LazyTaskList lazyTasks = tasks instanceof LazyTaskList ? (LazyTaskList) tasks : null;
+        for (int i = 0; i < tasks.size(); i++) {
+            // Lines that were never parsed are copied as they are
+            String line = lazyTasks != null ? lazyTasks.getFileLine(i) : tasks.get(i).toFileFormat();
+            chunk.append(line).append(System.lineSeparator());
+            if (chunk.length() >= WRITE_CHUNK_CHARS) {
+                writeFully(channel, chunk);
+                chunk.setLength(0);
+            }
+        }
+        writeFully(channel, chunk);
+    }
+
+    /**
+     * Decides whether the write about to be made should be forced to disk, according to the fsync policy.
+     *
+     * @return {@code true} if the write should be forced.
+     */
+    protected synchronized boolean shouldForce() {
+        switch (fsyncPolicy) {
+        case ALWAYS:
+            return true;
+        case NEVER:
+            return false;
+        case BATCHED:
+        default:
+            writesSinceForce++;
+            long now = System.nanoTime();
+            if (writesSinceForce < FSYNC_BATCH_SIZE && now - lastForceNanos < FSYNC_BATCH_INTERVAL_NANOS) {
+                return false;
+            }
+            writesSinceForce = 0;
+            lastForceNanos = now;
+            return true;
+        }
+    }
+
+    /**
+     * Encodes the text and writes all of it to the channel.
+     *
+     * @param channel The channel to write to.
+     * @param text    The text to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    protected static void writeFully(FileChannel channel, CharSequence text) throws IOException {
+        ByteBuffer bytes = CHARSET.encode(CharBuffer.wrap(text));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Forces a directory entry change, such as a rename, to disk.
+     * Not every platform allows opening directories, in which case this does nothing.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on this platform; the rename is still atomic
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package chatterbot;
+
+/**
+ * The on-disk format of the storage file.
+ */
+public enum StorageFormat {
+    /** One human-readable line per task, e.g. {@code D | 1 | desc | 2025-02-20 1800}. */
+    TEXT,
+    /** The compact binary format described in {@link BinaryTaskFormat}. */
+    BINARY;
+
+    /**
+     * Parses a format name, ignoring case.
+     * If the name is unrecognised, it returns TEXT.
+     *
+     * @param format The format name.
+     * @return The corresponding StorageFormat.
+     */
+    public static StorageFormat fromString(String format) {
+        try {
+            return StorageFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return TEXT;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package chatterbot;
 
-import java.util.List;
+import java.util.Iterator;
 import java.util.Scanner;
 
 import chatterbot.tasks.Task;
@@ -10,14 +10,28 @@ import chatterbot.tasks.Task;
  * Responsible for displaying messages and reading user input.
  */
 public class Ui {
-    private final Scanner scanner;
+    private static final int STREAM_CHUNK_CHARS = 8 * 1024;
+    private static final int MAX_RETAINED_CHARS = 16 * 1024;
+
+    private Scanner scanner; // Created on first use, since only the console reads commands through it
+    private final boolean isQuiet;
     private String lastMessage = ""; // Stores last chatbot message for GUI
 
     /**
-     * Constructs a Ui instance and initializes the scanner.
+     * Constructs a Ui instance that prints its messages.
      */
     public Ui() {
-        scanner = new Scanner(System.in);
+        this(false);
+    }
+
+    /**
+     * Constructs a Ui instance that optionally only records messages instead of printing them,
+     * for running commands whose individual replies nobody reads.
+     *
+     * @param isQuiet Whether to skip printing messages.
+     */
+    public Ui(boolean isQuiet) {
+        this.isQuiet = isQuiet;
     }
 
     /**
@@ -26,6 +40,9 @@ public class Ui {
      * @return The user input as a trimmed string.
      */
     public String readCommand() {
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
         return scanner.nextLine().trim();
     }
 
@@ -43,7 +60,51 @@ public class Ui {
      */
     public void showMessage(String message) {
         lastMessage = message;
-        System.out.println(message);
+        if (!isQuiet) {
+            println(message);
+        }
+    }
+
+    /**
+     * Displays a message made of a header and any number of lines, writing it out in chunks as the lines are
+     * produced rather than building the whole message first.
+     * Only the first lines of a long message are kept as the last message, which the GUI and the server reply
+     * with, followed by a count of the rest and a pointer to {@code list <page>}, so neither holds the whole of
+     * a long listing.
+     *
+     * @param header The first line of the message.
+     * @param lines  The remaining lines of the message.
+     */
+    public void showMessage(String header, Iterator<String> lines) {
+        if (isQuiet) {
+            lastMessage = header;
+            return;
+        }
+
+        StringBuilder chunk = new StringBuilder(header);
+        StringBuilder retained = new StringBuilder(header);
+        int omittedLines = 0;
+
+        while (lines.hasNext()) {
+            String line = lines.next();
+            chunk.append('\n').append(line);
+            if (omittedLines == 0 && retained.length() + line.length() < MAX_RETAINED_CHARS) {
+                retained.append('\n').append(line);
+            } else {
+                omittedLines++;
+            }
+            if (chunk.length() >= STREAM_CHUNK_CHARS) {
+                print(chunk);
+                chunk.setLength(0);
+            }
+        }
+        println(chunk);
+
+        if (omittedLines > 0) {
+            retained.append("\n... and ").append(omittedLines)
+                    .append(" more lines. Use list <page> to see your tasks a page at a time.");
+        }
+        lastMessage = retained.toString();
     }
 
     /**
@@ -53,10 +114,29 @@ public class Ui {
      * @param taskCount The total number of tasks in the list after adding the new task.
      */
     public void printAddedTask(Task task, int taskCount) {
-        showMessage("Got it. I've added this task:\n  " + task
+        showMessage("Got it. I've added this task:\n  " + task.toStringWithId()
                 + "\nNow you have " + taskCount + " tasks in the list.");
     }
 
+    /**
+     * Writes part of a message to the console.
+     * Subclasses that show messages elsewhere can override this and {@link #println(CharSequence)}.
+     *
+     * @param text The text to write.
+     */
+    protected void print(CharSequence text) {
+        System.out.print(text);
+    }
+
+    /**
+     * Writes the end of a message to the console.
+     *
+     * @param text The text to write before the line break.
+     */
+    protected void println(CharSequence text) {
+        System.out.println(text);
+    }
+
     /**
      * Returns the last message for GUI display.
      *
@@ -0,0 +1,8 @@
+package chatterbot.exceptions;
+
+public class InvalidTaskNumberException extends ChatterBotException {
+    public InvalidTaskNumberException(String usage, int taskCount) {
+        super("Hmm, I can't find those tasks. You have " + taskCount + " tasks in the list."
+                + System.lineSeparator() + "Try " + usage);
+    }
+}
@@ -4,15 +4,22 @@ public class UnknownCommandException extends ChatterBotException {
     public UnknownCommandException() {
         super("Looks like you got creative with the input." + System.lineSeparator()
                 + "Let’s try one of the following commands:" + System.lineSeparator()
-                + "list" + System.lineSeparator()
+                + "list [page] [size]" + System.lineSeparator()
                 + "todo <desc>" + System.lineSeparator()
                 + "deadline <desc> /by <date yyyy-MM-dd>" + System.lineSeparator()
                 + "event <desc> /from <start yyyy-MM-dd HHmm> /to <end yyyy-MM-dd HHmm>" + System.lineSeparator()
-                + "mark <num>" + System.lineSeparator()
-                + "unmark <num>" + System.lineSeparator()
-                + "delete <num>" + System.lineSeparator()
-                + "find <keyword>" + System.lineSeparator()
-                + "free <hours>" + System.lineSeparator()
-                + "bye (to exit the program)");
+                + "mark <nums> (e.g., 2, #12, 1,4,9, 3-5 or /undone)" + System.lineSeparator()
+                + "unmark <nums>" + System.lineSeparator()
+                + "delete <nums> (e.g., 2, #12, 1,4,9, 3-500 or /done)" + System.lineSeparator()
+                + "find [/word|/prefix] <keyword>" + System.lineSeparator()
+                + "free <duration> [/days N] [/hours S-E] [/step M] [/top K]" + System.lineSeparator()
+                + "upcoming [count]" + System.lineSeparator()
+                + "due before <date yyyy-MM-dd [HHmm]>" + System.lineSeparator()
+                + "convert <text|binary>" + System.lineSeparator()
+                + "batch <file>" + System.lineSeparator()
+                + "stats" + System.lineSeparator()
+                + "bye (to exit the program)" + System.lineSeparator()
+                + "Commands can be shortened while they stay unambiguous (e.g., unm 2), "
+                + "and dl, ev and del stand for deadline, event and delete.");
     }
 }
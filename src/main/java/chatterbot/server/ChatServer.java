@@ -0,0 +1,349 @@
+package chatterbot.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import chatterbot.Storage;
+
+/**
+ * Serves many users from one JVM over a line protocol on a local TCP socket.
+ *
+ * <p>A client first sends {@code user <name>} and then one command per line, exactly as typed into the chatbot.
+ * Each reply is sent as its lines followed by a line holding only a full stop; a reply line that starts with a
+ * full stop gets a second one in front, as in SMTP. Each user has their own task list, stored in
+ * {@code <name>.txt} in the data directory. The tasks of a user who has sent no command for the idle timeout are
+ * dropped from memory and loaded again when the next command arrives.
+ *
+ * <p>Each connection is served by a pooled thread, so at most {@code maxConnections} clients are served at once;
+ * later clients are told the server is busy.
+ */
+public class ChatServer implements Closeable {
+    /** The port the server listens on if none is given. */
+    public static final int DEFAULT_PORT = 5055;
+    /** How long a user's tasks stay in memory after their last command if no other timeout is given. */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    /** The most clients served at once if no other limit is given. */
+    public static final int DEFAULT_MAX_CONNECTIONS = 2000;
+    /** The line that ends each reply. */
+    static final String END_OF_REPLY = ".";
+
+    private static final Pattern USER_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final String USER_USAGE = "Please say who you are first: user <name> (letters, digits, _ and -)";
+
+    private final Path dataDirectory;
+    private final String storageMode;
+    private final Duration idleTimeout;
+    private final ConcurrentHashMap<String, UserSession> sessions = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService connectionPool;
+    private final ScheduledExecutorService evictor;
+    private ServerSocket serverSocket;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructs a server that has not started listening yet.
+     *
+     * @param dataDirectory  The directory holding one storage file per user.
+     * @param storageMode    The storage mode of each user's tasks, e.g. {@link Storage#JOURNAL_MODE}.
+     * @param idleTimeout    How long a user's tasks stay in memory after their last command.
+     * @param maxConnections The most clients served at once.
+     */
+    public ChatServer(Path dataDirectory, String storageMode, Duration idleTimeout, int maxConnections) {
+        assert !idleTimeout.isNegative() && !idleTimeout.isZero() : "Idle timeout must be positive";
+        assert maxConnections > 0 : "Maximum connections must be positive";
+        this.dataDirectory = dataDirectory;
+        this.storageMode = storageMode;
+        this.idleTimeout = idleTimeout;
+        this.connectionPool = new ThreadPoolExecutor(0, maxConnections, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), namedDaemonThreads("chatterbot-session-"));
+        this.evictor = Executors.newSingleThreadScheduledExecutor(namedDaemonThreads("chatterbot-evictor-"));
+    }
+
+    /**
+     * Starts the server on the port given by the {@code chatterbot.server.port} system property.
+     * The data directory is read from {@code chatterbot.server.dataDir}, the idle timeout in seconds from
+     * {@code chatterbot.server.idleTimeoutSeconds}, the connection limit from
+     * {@code chatterbot.server.maxConnections} and the storage mode from {@code chatterbot.storage}.
+     */
+    public static void main(String[] args) throws IOException {
+        ChatServer server = new ChatServer(Path.of(System.getProperty("chatterbot.server.dataDir", "data/users")),
+                System.getProperty("chatterbot.storage", Storage.SNAPSHOT_MODE),
+                Duration.ofSeconds(Long.getLong("chatterbot.server.idleTimeoutSeconds",
+                        DEFAULT_IDLE_TIMEOUT.toSeconds())),
+                Integer.getInteger("chatterbot.server.maxConnections", DEFAULT_MAX_CONNECTIONS));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "chatterbot-server-shutdown"));
+        server.start(Integer.getInteger("chatterbot.server.port", DEFAULT_PORT));
+        System.out.println("ChatterBot is listening on port " + server.getPort());
+        server.serve();
+    }
+
+    /**
+     * Starts listening on the loopback interface and evicting idle users.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public synchronized void start(int port) throws IOException {
+        assert serverSocket == null : "Server has already been started";
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        long sweepMillis = Math.max(100, idleTimeout.toMillis() / 2);
+        evictor.scheduleWithFixedDelay(() -> evictIdleSessions(System.nanoTime()), sweepMillis, sweepMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return The local port.
+     */
+    public synchronized int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts clients until the server is closed. Each client is served on a thread of its own.
+     */
+    public void serve() {
+        ServerSocket listener;
+        synchronized (this) {
+            listener = serverSocket;
+        }
+        while (!listener.isClosed()) {
+            Socket socket;
+            try {
+                socket = listener.accept();
+            } catch (IOException e) {
+                continue; // The listener was closed, or the client gave up while connecting
+            }
+            try {
+                connectionPool.execute(() -> serveConnection(socket));
+            } catch (RejectedExecutionException e) {
+                rejectConnection(socket);
+            }
+        }
+    }
+
+    /**
+     * Starts accepting clients on a background thread.
+     */
+    public void serveInBackground() {
+        Thread acceptor = new Thread(this::serve, "chatterbot-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Stops accepting clients, disconnects the connected ones and closes the storage of every user.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        synchronized (this) {
+            if (serverSocket != null) {
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    // The listener is unusable either way
+                }
+            }
+        }
+        evictor.shutdownNow();
+        connectionPool.shutdownNow();
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        for (UserSession session : sessions.values()) {
+            session.close();
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Returns the number of users whose tasks are in memory.
+     *
+     * @return The number of live sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Ends the sessions that have run no command since the idle timeout before the given time.
+     * A session is closed before it is removed, outside the map, and a user's next session closes it again
+     * before loading, which waits for this close to finish, so it never loads tasks that are still being written.
+     *
+     * @param nowNanos The current time, from {@link System#nanoTime()}.
+     */
+    void evictIdleSessions(long nowNanos) {
+        long cutoff = nowNanos - idleTimeout.toNanos();
+        for (Map.Entry<String, UserSession> entry : sessions.entrySet()) {
+            UserSession session = entry.getValue();
+            if (session.isIdleSince(cutoff)) {
+                session.close();
+                sessions.remove(entry.getKey(), session);
+            }
+        }
+    }
+
+    private void serveConnection(Socket socket) {
+        connections.add(socket);
+        if (isClosed) {
+            closeQuietly(socket); // The server closed while this connection was waiting for a thread
+        }
+        try (socket;
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter writer = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String userName = null;
+            UserSession session = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.trim();
+                if (userName == null) {
+                    userName = parseUserName(command);
+                    if (userName != null) {
+                        session = acquireSession(userName);
+                    }
+                    writeReply(writer, userName == null ? USER_USAGE
+                            : "Hello " + userName + "! What can I do for you?");
+                    continue;
+                }
+
+                String response;
+                while ((response = session.respond(command)) == null) {
+                    if (isClosed) {
+                        return;
+                    }
+                    session = acquireSession(userName); // The session was evicted or ended by another connection
+                }
+                writeReply(writer, response);
+                if (session.hasExited()) {
+                    sessions.remove(userName, session);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // The client disconnected; its tasks were saved after its last command
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Returns the user's session, starting a new one if the user has none or theirs has ended.
+     * Starting a session does no I/O, so the map is never held up by a disk; the tasks are loaded by the
+     * session's first command.
+     */
+    private UserSession acquireSession(String userName) {
+        return sessions.compute(userName, (name, current) -> current == null || current.isClosed()
+                ? new UserSession(() -> openStorage(name), current) : current);
+    }
+
+    private Storage openStorage(String userName) {
+        return Storage.forMode(storageMode, dataDirectory.resolve(userName + ".txt").toString());
+    }
+
+    private static String parseUserName(String command) {
+        if (!command.startsWith("user ")) {
+            return null;
+        }
+        String userName = command.substring(5).trim();
+        return USER_NAME_PATTERN.matcher(userName).matches() ? userName : null;
+    }
+
+    private static void rejectConnection(Socket socket) {
+        try (socket;
+                BufferedWriter writer = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            writeReply(writer, "Sorry, the server is busy. Please try again later.");
+        } catch (IOException e) {
+            // The client is gone already
+        }
+    }
+
+    /**
+     * Sends a reply followed by the end-of-reply line, doubling a full stop at the start of any line.
+     */
+    static void writeReply(BufferedWriter writer, String reply) throws IOException {
+        int lineStart = 0;
+        while (lineStart <= reply.length()) {
+            int lineEnd = reply.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = reply.length();
+            }
+            int contentEnd = lineEnd > lineStart && reply.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart && reply.charAt(lineStart) == '.') {
+                writer.write('.');
+            }
+            writer.write(reply, lineStart, contentEnd - lineStart);
+            writer.write('\n');
+            lineStart = lineEnd + 1;
+        }
+        writer.write(END_OF_REPLY);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Reads a reply sent by {@link #writeReply(BufferedWriter, String)}.
+     *
+     * @param reader The connection to the server.
+     * @return The reply, or {@code null} if the server closed the connection first.
+     * @throws IOException If the connection fails.
+     */
+    static String readReply(BufferedReader reader) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.equals(END_OF_REPLY)) {
+                return reply.toString();
+            }
+            if (reply.length() > 0) {
+                reply.append('\n');
+            }
+            reply.append(line.startsWith(".") ? line.substring(1) : line);
+        }
+        return null;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // The socket is unusable either way
+        }
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package chatterbot.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chatterbot.Storage;
+
+/**
+ * Measures the latency of the server with many users connected at once.
+ *
+ * <p>Every session connects, identifies itself as its own user, waits until all sessions are connected and then
+ * sends a fixed mix of commands, timing each reply. The median, 99th percentile and worst reply times over all
+ * commands are printed at the end. Without a port, the client starts a server of its own on a free port with a
+ * temporary data directory.
+ *
+ * <p>Usage: {@code LoadTestClient [sessions] [commandsPerSession] [port]}, by default 1000 sessions of 50 commands,
+ * or {@code ./gradlew loadTest}.
+ */
+public class LoadTestClient {
+    private static final int DEFAULT_SESSIONS = 1000;
+    private static final int DEFAULT_COMMANDS_PER_SESSION = 50;
+
+    public static void main(String[] args) throws Exception {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+        int commandsPerSession = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_COMMANDS_PER_SESSION;
+
+        ChatServer server = null;
+        int port;
+        if (args.length > 2) {
+            port = Integer.parseInt(args[2]);
+        } else {
+            Path dataDirectory = Files.createTempDirectory("chatterbot-load");
+            server = new ChatServer(dataDirectory, Storage.SNAPSHOT_MODE, ChatServer.DEFAULT_IDLE_TIMEOUT,
+                    sessionCount);
+            server.start(0);
+            server.serveInBackground();
+            port = server.getPort();
+            System.out.println("Started a server on port " + port + " with data in " + dataDirectory);
+        }
+
+        try {
+            run(port, sessionCount, commandsPerSession);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static void run(int port, int sessionCount, int commandsPerSession) throws InterruptedException {
+        long[][] latencies = new long[sessionCount][];
+        AtomicInteger failureCount = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(sessionCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            int session = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    latencies[session] = runSession(port, session, commandsPerSession, connected, start);
+                } catch (IOException | InterruptedException e) {
+                    failureCount.incrementAndGet();
+                    connected.countDown();
+                }
+            }, "load-session-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+
+        connected.await();
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        long[] all = Arrays.stream(latencies).filter(sessionLatencies -> sessionLatencies != null)
+                .flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.println(sessionCount + " sessions, " + all.length + " commands in "
+                + Duration.ofNanos(elapsedNanos).toMillis() + " ms ("
+                + Math.round(all.length * 1e9 / Math.max(1, elapsedNanos)) + " commands/s), "
+                + failureCount.get() + " sessions failed");
+        if (all.length > 0) {
+            System.out.printf("p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", percentile(all, 50) / 1e6,
+                    percentile(all, 99) / 1e6, all[all.length - 1] / 1e6);
+        }
+    }
+
+    /**
+     * Runs one session and returns the time each of its commands took, in nanoseconds.
+     */
+    private static long[] runSession(int port, int session, int commandsPerSession, CountDownLatch connected,
+            CountDownLatch start) throws IOException, InterruptedException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter writer = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            send(writer, "user load-" + session);
+            if (ChatServer.readReply(reader) == null) {
+                throw new IOException("Server closed the connection");
+            }
+            connected.countDown();
+            start.await();
+
+            long[] latencies = new long[commandsPerSession];
+            for (int i = 0; i < commandsPerSession; i++) {
+                long startNanos = System.nanoTime();
+                send(writer, command(i));
+                if (ChatServer.readReply(reader) == null) {
+                    throw new IOException("Server closed the connection");
+                }
+                latencies[i] = System.nanoTime() - startNanos;
+            }
+            return latencies;
+        }
+    }
+
+    /**
+     * Returns the command to send at a step of a session: mostly new tasks, with some listing, searching and
+     * marking.
+     */
+    private static String command(int step) {
+        switch (step % 10) {
+        case 0:
+        case 1:
+        case 2:
+            return "todo read chapter " + step;
+        case 3:
+        case 4:
+            return "deadline submit report " + step + " /by 2025-03-01 1800";
+        case 5:
+            return "event project meeting " + step + " /from 2025-03-02 1400 /to 2025-03-02 1600";
+        case 6:
+            return "mark " + (step / 2 + 1);
+        case 7:
+            return "find report";
+        case 8:
+            return "list";
+        default:
+            return "upcoming";
+        }
+    }
+
+    private static void send(BufferedWriter writer, String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
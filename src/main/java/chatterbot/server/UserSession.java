@@ -0,0 +1,132 @@
+package chatterbot.server;
+
+import java.util.function.Supplier;
+
+import chatterbot.ChatterBot;
+import chatterbot.Storage;
+import chatterbot.Ui;
+
+/**
+ * Holds the tasks of one user of the server while they are in use. Every connection of the user shares the
+ * session, and their commands run one at a time.
+ *
+ * <p>A session ends when the user says goodbye or when it has been idle for a while. Its tasks are saved after
+ * every command, so ending it only releases the memory and closes the storage; the next command loads the tasks
+ * again into a new session.
+ *
+ * <p>Creating a session does no I/O, so the server can do it while it holds its map of sessions. The tasks are
+ * loaded by the first command, after the user's previous session, if any, has been closed, so a session never
+ * loads tasks that are still being written.
+ *
+ * <p>Commands that take a file name, {@code batch} and {@code convert}, are turned off, since they would let a
+ * client read or overwrite any file the server can reach, including other users' tasks.
+ */
+class UserSession {
+    /** Commands that read or write files named by the client, which could be any file the server can reach. */
+    private static final String[] FILE_COMMANDS = {"batch", "convert"};
+
+    private final Supplier<Storage> storageFactory;
+    private UserSession previous;
+    private ChatterBot chatterBot;
+    private Storage storage;
+    private volatile long lastUsedNanos;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructs a session that loads the user's tasks when it runs its first command.
+     *
+     * @param storageFactory Opens the storage holding the user's tasks.
+     * @param previous       The user's previous session, which is closed before the tasks are loaded,
+     *                       or {@code null} if there is none.
+     */
+    UserSession(Supplier<Storage> storageFactory, UserSession previous) {
+        this.storageFactory = storageFactory;
+        this.previous = previous;
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Runs a command, loading the user's tasks first if this is the session's first command.
+     *
+     * @param command The command as entered.
+     * @return The reply, or {@code null} if the session has ended and the command was not run.
+     */
+    synchronized String respond(String command) {
+        if (isClosed) {
+            return null;
+        }
+        lastUsedNanos = System.nanoTime();
+        if (chatterBot == null) {
+            closePrevious();
+            storage = storageFactory.get();
+            chatterBot = new ChatterBot(storage, new ReplyUi());
+            chatterBot.disableCommands(FILE_COMMANDS);
+        }
+        String response = chatterBot.getResponse(command);
+        if (chatterBot.isExited()) {
+            isClosed = true;
+            storage = null; // Saying goodbye closed it
+        }
+        return response;
+    }
+
+    /**
+     * Returns whether the session has ended, so its user needs a new one. This never waits for a running command.
+     */
+    boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Returns whether the session ended because the user said goodbye, rather than because it was idle.
+     */
+    synchronized boolean hasExited() {
+        return chatterBot != null && chatterBot.isExited();
+    }
+
+    /**
+     * Returns whether no command has been run since the given time.
+     *
+     * @param nanos A time from {@link System#nanoTime()}.
+     */
+    boolean isIdleSince(long nanos) {
+        return lastUsedNanos - nanos < 0;
+    }
+
+    /**
+     * Ends the session, waiting for a running command to finish first. Later commands are not run.
+     * Returns once the storage is closed, even if another thread started closing it.
+     */
+    synchronized void close() {
+        isClosed = true;
+        closePrevious();
+        if (storage != null) {
+            storage.close();
+            storage = null;
+        }
+    }
+
+    private void closePrevious() {
+        if (previous != null) {
+            previous.close();
+            previous = null;
+        }
+    }
+
+    /**
+     * Keeps each reply for the client instead of printing it on the server's console.
+     */
+    private static class ReplyUi extends Ui {
+        ReplyUi() {
+            super(false);
+        }
+
+        @Override
+        protected void print(CharSequence text) {
+        }
+
+        @Override
+        protected void println(CharSequence text) {
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package chatterbot.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import chatterbot.LazyTaskList;
+import chatterbot.Ui;
+
+/**
+ * A task list that can be shared between threads, such as the thread handling commands and a background saver.
+ *
+ * <p>Lookups, listings and searches run in parallel under a read lock, while changes take the write lock and run
+ * one at a time. The search indexes, which a plain task list builds during its first search, are built under the
+ * write lock before the first lookup instead, and a lazily loaded list is parsed in full when it is wrapped, so
+ * readers never change anything.
+ *
+ * <p>{@link #getAllTasks()} returns a snapshot rather than the live list. Once snapshots are enabled, it is the
+ * published one, taken without any lock or copying. Until then it is a copy of every task taken under the read
+ * lock, so changes wait only while the snapshot is copied, not while it is written out. Later changes never show
+ * up in a snapshot. Each method is atomic on its own, but a task number found by one call may point at a
+ * different task by the next if another thread removed tasks in between.
+ */
+public class ConcurrentTaskList extends TaskList {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean isIndexed;
+
+    /**
+     * Constructs an empty ConcurrentTaskList.
+     */
+    public ConcurrentTaskList() {
+        this(new ArrayList<>());
+    }
+
+    private ConcurrentTaskList(List<Task> tasks) {
+        super(tasks, true);
+    }
+
+    /**
+     * Constructs a ConcurrentTaskList that takes ownership of the given list instead of copying it.
+     * The caller must not use the list afterwards. A {@link LazyTaskList} is copied after all, since it parses
+     * and caches tasks as they are read, which readers holding only the read lock must not do.
+     *
+     * @param tasks The list of tasks to manage.
+     * @return A ConcurrentTaskList backed by the given list.
+     */
+    public static ConcurrentTaskList wrap(List<Task> tasks) {
+        return new ConcurrentTaskList(tasks instanceof LazyTaskList ? new ArrayList<>(tasks) : tasks);
+    }
+
+    /**
+     * Returns a snapshot of the tasks, like {@link #getSnapshot()}, instead of the live list.
+     *
+     * @return An unmodifiable snapshot of the tasks.
+     */
+    @Override
+    public List<Task> getAllTasks() {
+        return getSnapshot();
+    }
+
+    /**
+     * Returns the tasks as they are now, in a list that never changes.
+     * Once snapshots are enabled, this reads the latest published snapshot without taking any lock.
+     *
+     * @return An unmodifiable snapshot of the tasks.
+     */
+    @Override
+    public List<Task> getSnapshot() {
+        if (isPublishingSnapshots()) {
+            return super.getSnapshot();
+        }
+        lock.readLock().lock();
+        try {
+            return super.getSnapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void enableSnapshots() {
+        lock.writeLock().lock();
+        try {
+            super.enableSnapshots();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void setListener(TaskListListener listener) {
+        lock.writeLock().lock();
+        try {
+            super.setListener(listener);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addTask(Task task) {
+        lock.writeLock().lock();
+        try {
+            super.addTask(task);
+            keepIndexesBuilt();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Task removeTask(int index) {
+        lock.writeLock().lock();
+        try {
+            return super.removeTask(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> removeTasks(BitSet indices) {
+        lock.writeLock().lock();
+        try {
+            return super.removeTasks(indices);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markTaskAsDone(int index) {
+        lock.writeLock().lock();
+        try {
+            super.markTaskAsDone(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markTaskAsNotDone(int index) {
+        lock.writeLock().lock();
+        try {
+            super.markTaskAsNotDone(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void enableSubstringIndex(int maxPostings) {
+        lock.writeLock().lock();
+        try {
+            super.enableSubstringIndex(maxPostings);
+            keepIndexesBuilt();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Task getTask(int index) {
+        lock.readLock().lock();
+        try {
+            return super.getTask(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        lockForSearch();
+        try {
+            return super.getTaskById(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int indexOfId(int id) {
+        lockForSearch();
+        try {
+            return super.indexOfId(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return super.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return super.getVersion();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void printTasks(Ui ui) {
+        lock.readLock().lock();
+        try {
+            super.printTasks(ui);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void printTasks(Ui ui, int page, int pageSize) {
+        lock.readLock().lock();
+        try {
+            super.printTasks(ui, page, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isSubstringIndexActive() {
+        lock.readLock().lock();
+        try {
+            return super.isSubstringIndexActive();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IndexedTask> findTasks(String keyword) {
+        lockForSearch();
+        try {
+            return super.findTasks(keyword);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IndexedTask> findTasksByWords(String query) {
+        lockForSearch();
+        try {
+            return super.findTasksByWords(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IndexedTask> findTasksByPrefix(String prefix) {
+        lockForSearch();
+        try {
+            return super.findTasksByPrefix(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IndexedTask> findUpcomingTasks(LocalDateTime from, int limit) {
+        lockForSearch();
+        try {
+            return super.findUpcomingTasks(from, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IndexedTask> findTasksDueBefore(LocalDateTime before) {
+        lockForSearch();
+        try {
+            return super.findTasksDueBefore(before);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LocalDateTime> findFreeSlots(Duration duration, FreeTimeOptions options, LocalDateTime currentTime) {
+        lockForSearch();
+        try {
+            return super.findFreeSlots(duration, options, currentTime);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the read lock for a lookup that uses the indexes, building them first if this is the first one.
+     * The indexes are built under the write lock, which is then downgraded to the read lock.
+     */
+    private void lockForSearch() {
+        if (!isIndexed) {
+            lock.writeLock().lock();
+            try {
+                buildIndexes();
+                isIndexed = true;
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        lock.readLock().lock();
+    }
+
+    /**
+     * Rebuilds any index that a change dropped, once searches have started, so readers never have to build one.
+     */
+    private void keepIndexesBuilt() {
+        if (isIndexed) {
+            buildIndexes();
+        }
+    }
+}
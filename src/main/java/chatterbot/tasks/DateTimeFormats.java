@@ -0,0 +1,100 @@
+package chatterbot.tasks;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Shared date-time formatters for storing and displaying tasks.
+ * {@link DateTimeFormatter} is immutable and thread-safe, so each pattern is compiled once and reused.
+ *
+ * <p>The storage format {@code yyyy-MM-dd HHmm} also has a fast path that reads and writes the digits directly,
+ * falling back to the formatter for anything unusual so that the results are the same.
+ */
+public final class DateTimeFormats {
+    /** The format used in the storage file and in commands, e.g. {@code 2025-02-20 1800}. */
+    public static final DateTimeFormatter STORAGE = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    /** The format used when displaying deadlines and events, e.g. {@code Feb 20 2025, 6:00 PM}. */
+    public static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a");
+    /** The format used when displaying free slots, e.g. {@code Feb 20, 2025 6:00 PM}. */
+    public static final DateTimeFormatter FREE_SLOT = DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm a");
+
+    private static final int STORAGE_LENGTH = "yyyy-MM-dd HHmm".length();
+
+    private DateTimeFormats() {
+    }
+
+    /**
+     * Parses a time in the storage format.
+     *
+     * @param text The text to parse, e.g. {@code 2025-02-20 1800}.
+     * @return The parsed time.
+     * @throws java.time.format.DateTimeParseException If the text is not a valid time in the storage format.
+     */
+    public static LocalDateTime parseStorage(CharSequence text) {
+        if (text.length() == STORAGE_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && text.charAt(10) == ' ') {
+            int year = readDigits(text, 0, 4);
+            int month = readDigits(text, 5, 7);
+            int day = readDigits(text, 8, 10);
+            int hour = readDigits(text, 11, 13);
+            int minute = readDigits(text, 13, 15);
+            if (year >= 1000 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute);
+                } catch (DateTimeException e) {
+                    // Out-of-range fields, e.g. Feb 30, are resolved or reported by the formatter below
+                }
+            }
+        }
+        return LocalDateTime.parse(text, STORAGE);
+    }
+
+    /**
+     * Formats a time in the storage format.
+     *
+     * @param dateTime The time to format.
+     * @return The formatted time, e.g. {@code 2025-02-20 1800}.
+     */
+    public static String formatStorage(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1000 || year > 9999) {
+            return dateTime.format(STORAGE);
+        }
+
+        char[] chars = new char[STORAGE_LENGTH];
+        writeDigits(chars, 0, 4, year);
+        chars[4] = '-';
+        writeDigits(chars, 5, 2, dateTime.getMonthValue());
+        chars[7] = '-';
+        writeDigits(chars, 8, 2, dateTime.getDayOfMonth());
+        chars[10] = ' ';
+        writeDigits(chars, 11, 2, dateTime.getHour());
+        writeDigits(chars, 13, 2, dateTime.getMinute());
+        return new String(chars);
+    }
+
+    /**
+     * Reads the decimal number in the given range.
+     *
+     * @return The number, or -1 if the range contains anything other than ASCII digits.
+     */
+    private static int readDigits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] chars, int start, int width, int value) {
+        for (int i = start + width - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,25 +1,60 @@
 package chatterbot.tasks;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 public class Deadline extends Task {
     private final LocalDateTime by;
 
     public Deadline(String description, String by) {
         super(description);
-        this.by = LocalDateTime.parse(by, DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        this.by = DateTimeFormats.parseStorage(by);
+    }
+
+    /**
+     * Constructs a Deadline from an already parsed due time.
+     *
+     * @param description The description of the task.
+     * @param by          The due time.
+     */
+    public Deadline(String description, LocalDateTime by) {
+        this(description, by, true);
+    }
+
+    /**
+     * Constructs a Deadline that optionally keeps its description as it is.
+     *
+     * @param description The description of the task.
+     * @param by          The due time.
+     * @param shouldShare Whether to pass the description through the {@link DescriptionPool}.
+     */
+    protected Deadline(String description, LocalDateTime by, boolean shouldShare) {
+        super(description, shouldShare);
+        this.by = by;
+    }
+
+    /**
+     * Returns the due time of the deadline.
+     *
+     * @return The due time as a LocalDateTime object.
+     */
+    public LocalDateTime getBy() {
+        return by;
+    }
+
+    @Override
+    public Task copy() {
+        return copyStateTo(new Deadline(description, by, false));
     }
 
     @Override
     public String toFileFormat() {
-        return "D | " + (isDone ? "1" : "0") + " | "
-                + description + " | " + by.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        return getFileFormatIdField() + "D | " + (isDone ? "1" : "0") + " | "
+                + description + " | " + DateTimeFormats.formatStorage(by);
     }
 
     @Override
     public String toString() {
         return "[D]" + super.toString() + " (by: "
-                + by.format(DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a")) + ")";
+                + by.format(DateTimeFormats.DISPLAY) + ")";
     }
 }
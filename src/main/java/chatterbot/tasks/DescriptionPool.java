@@ -0,0 +1,199 @@
+package chatterbot.tasks;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Shares one string among all tasks with the same description, so long histories of recurring tasks
+ * such as "standup" keep a single copy of each text. Every task passes its description through the
+ * process-wide pool, which does nothing until it is enabled.
+ *
+ * <p>The pool holds its strings weakly, so a description no task uses any more can still be collected, and it
+ * stops taking new descriptions once it is full. Descriptions are spread over several separately locked
+ * segments, so tasks loaded in parallel rarely wait for each other.
+ *
+ * <p>Each pool keeps its own statistics, counted per description, so they drop along with a description once
+ * it is collected. They remain an estimate: a duplicate whose task was deleted is still counted while other
+ * tasks keep the description alive.
+ */
+public final class DescriptionPool {
+    /** The default limit on the number of distinct descriptions held. */
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private static volatile DescriptionPool shared; // null while sharing is disabled
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param maxEntries The most distinct descriptions to hold. Descriptions beyond it are not shared.
+     */
+    DescriptionPool(int maxEntries) {
+        assert maxEntries > 0 : "Maximum entries must be positive";
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(Math.max(1, maxEntries / SEGMENT_COUNT));
+        }
+    }
+
+    /**
+     * Enables sharing for all tasks created from now on. Enabling it again keeps the current pool.
+     *
+     * @param maxEntries The most distinct descriptions to hold. Descriptions beyond it are not shared.
+     */
+    public static synchronized void enable(int maxEntries) {
+        if (shared == null) {
+            shared = new DescriptionPool(maxEntries);
+        }
+    }
+
+    /**
+     * Disables sharing and drops the process-wide pool along with its statistics.
+     * Tasks keep the strings they already share.
+     */
+    public static synchronized void disable() {
+        shared = null;
+    }
+
+    public static boolean isEnabled() {
+        return shared != null;
+    }
+
+    /**
+     * Returns the pool every task's description goes through.
+     *
+     * @return The process-wide pool, or {@code null} if sharing is disabled.
+     */
+    public static DescriptionPool getShared() {
+        return shared;
+    }
+
+    /**
+     * Returns the string from the process-wide pool equal to the description, if sharing is enabled.
+     *
+     * @param description The description of a new task.
+     * @return An equal string that may be shared with other tasks.
+     */
+    static String intern(String description) {
+        DescriptionPool pool = shared;
+        return pool == null || description == null ? description : pool.share(description);
+    }
+
+    /**
+     * Returns the pooled string equal to the description, adding the description if there is none.
+     *
+     * @param description The description to share.
+     * @return An equal string that may be shared with other tasks.
+     */
+    String share(String description) {
+        int hash = description.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)].intern(description);
+    }
+
+    /**
+     * Returns the number of distinct descriptions the pool holds.
+     *
+     * @return The number of live entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns how many new descriptions were replaced by a string the pool still holds.
+     *
+     * @return The number of duplicate strings not kept.
+     */
+    public long getSharedCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.countDuplicates(false);
+        }
+        return count;
+    }
+
+    /**
+     * Returns an estimate of the heap not taken up by duplicates of the descriptions the pool still holds.
+     *
+     * @return The estimated bytes saved.
+     */
+    public long getSavedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.countDuplicates(true);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the heap taken by a string on a 64-bit JVM with compressed pointers: the string object and its
+     * byte array, which holds one byte per character if every character fits in Latin-1 and two otherwise.
+     */
+    static long estimateSize(String text) {
+        boolean isLatin1 = true;
+        for (int i = 0; i < text.length() && isLatin1; i++) {
+            isLatin1 = text.charAt(i) <= 0xFF;
+        }
+        long arrayBytes = 16 + (isLatin1 ? text.length() : 2L * text.length());
+        return 24 + ((arrayBytes + 7) & ~7L);
+    }
+
+    private static final class Segment {
+        private final WeakHashMap<String, Entry> entries = new WeakHashMap<>();
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        synchronized String intern(String description) {
+            Entry entry = entries.get(description);
+            String pooled = entry != null ? entry.get() : null;
+            if (pooled != null) {
+                if (pooled != description) {
+                    entry.duplicates++;
+                }
+                return pooled;
+            }
+            if (entries.size() < maxEntries) {
+                entries.put(description, new Entry(description));
+            }
+            return description;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        /**
+         * Sums the duplicates of the live descriptions, either as a count or as their estimated size.
+         */
+        synchronized long countDuplicates(boolean inBytes) {
+            long total = 0;
+            for (Entry entry : entries.values()) {
+                String pooled = entry.get();
+                if (pooled != null) {
+                    total += inBytes ? entry.duplicates * estimateSize(pooled) : entry.duplicates;
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * A pooled description, held weakly, and the number of equal descriptions it has replaced.
+     */
+    private static final class Entry extends WeakReference<String> {
+        private long duplicates;
+
+        Entry(String description) {
+            super(description);
+        }
+    }
+}
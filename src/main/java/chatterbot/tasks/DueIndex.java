@@ -0,0 +1,99 @@
+package chatterbot.tasks;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Orders the unfinished deadlines and events by when they are due: a deadline by its due time and an event by
+ * its start time. Tasks are identified by sequence numbers, and tasks due at the same time stay in list order.
+ *
+ * <p>The times are kept in a balanced tree, so adding, removing and finding the next due task take O(log n).
+ */
+final class DueIndex {
+    private final TreeMap<LocalDateTime, Postings> sequencesByTime = new TreeMap<>();
+
+    /**
+     * Returns the time the task is due, or {@code null} if it has none.
+     *
+     * @param task The task.
+     * @return The due time of a deadline or the start time of an event.
+     */
+    static LocalDateTime getDueTime(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        }
+        if (task instanceof Event) {
+            return ((Event) task).getStartTime();
+        }
+        return null;
+    }
+
+    /**
+     * Adds the task if it has a due time and is not done.
+     *
+     * @param task     The task.
+     * @param sequence The sequence number of the task.
+     */
+    void add(Task task, int sequence) {
+        LocalDateTime time = getDueTime(task);
+        if (time != null && !task.isDone) {
+            sequencesByTime.computeIfAbsent(time, key -> new Postings()).add(sequence);
+        }
+    }
+
+    /**
+     * Removes the task if it is in the index.
+     *
+     * @param task     The task.
+     * @param sequence The sequence number of the task.
+     */
+    void remove(Task task, int sequence) {
+        LocalDateTime time = getDueTime(task);
+        if (time == null) {
+            return;
+        }
+        Postings postings = sequencesByTime.get(time);
+        if (postings != null && postings.remove(sequence) && postings.size() == 0) {
+            sequencesByTime.remove(time);
+        }
+    }
+
+    /**
+     * Returns the tasks due at or after the given time, soonest first.
+     *
+     * @param from  The earliest due time to include.
+     * @param limit The most tasks to return.
+     * @return The sequence numbers of the tasks.
+     */
+    int[] findFrom(LocalDateTime from, int limit) {
+        return collect(sequencesByTime.tailMap(from, true), limit);
+    }
+
+    /**
+     * Returns the tasks due before the given time, soonest first.
+     *
+     * @param before The time all returned tasks are due before.
+     * @return The sequence numbers of the tasks.
+     */
+    int[] findBefore(LocalDateTime before) {
+        return collect(sequencesByTime.headMap(before, false), Integer.MAX_VALUE);
+    }
+
+    private static int[] collect(Map<LocalDateTime, Postings> postingsByTime, int limit) {
+        int[] sequences = Postings.NONE;
+        int count = 0;
+        for (Postings postings : postingsByTime.values()) {
+            if (count + postings.size() > sequences.length) {
+                sequences = Arrays.copyOf(sequences, Math.max(count + postings.size(), sequences.length * 2));
+            }
+            postings.copyTo(sequences, count);
+            count += postings.size();
+            if (count >= limit) {
+                break;
+            }
+        }
+        return Arrays.copyOf(sequences, Math.min(count, limit));
+    }
+}
@@ -1,7 +1,6 @@
 package chatterbot.tasks;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 public class Event extends Task {
     private final LocalDateTime from;
@@ -9,9 +8,33 @@ public class Event extends Task {
 
     public Event(String description, String from, String to) {
         super(description);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
-        this.from = LocalDateTime.parse(from, formatter);
-        this.to = LocalDateTime.parse(to, formatter);
+        this.from = DateTimeFormats.parseStorage(from);
+        this.to = DateTimeFormats.parseStorage(to);
+    }
+
+    /**
+     * Constructs an Event from already parsed start and end times.
+     *
+     * @param description The description of the task.
+     * @param from        The start time.
+     * @param to          The end time.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to) {
+        this(description, from, to, true);
+    }
+
+    /**
+     * Constructs an Event that optionally keeps its description as it is.
+     *
+     * @param description The description of the task.
+     * @param from        The start time.
+     * @param to          The end time.
+     * @param shouldShare Whether to pass the description through the {@link DescriptionPool}.
+     */
+    protected Event(String description, LocalDateTime from, LocalDateTime to, boolean shouldShare) {
+        super(description, shouldShare);
+        this.from = from;
+        this.to = to;
     }
 
     /**
@@ -32,17 +55,21 @@ public class Event extends Task {
         return to;
     }
 
+    @Override
+    public Task copy() {
+        return copyStateTo(new Event(description, from, to, false));
+    }
+
     @Override
     public String toFileFormat() {
-        return "E | " + (isDone ? "1" : "0") + " | " + description
-                + " | " + from.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"))
-                + " | " + to.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        return getFileFormatIdField() + "E | " + (isDone ? "1" : "0") + " | " + description
+                + " | " + DateTimeFormats.formatStorage(from)
+                + " | " + DateTimeFormats.formatStorage(to);
     }
 
     @Override
     public String toString() {
-        DateTimeFormatter displayFormat = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mm a");
-        return "[E]" + super.toString() + " (from: " + from.format(displayFormat)
-                + " to: " + to.format(displayFormat) + ")";
+        return "[E]" + super.toString() + " (from: " + from.format(DateTimeFormats.DISPLAY)
+                + " to: " + to.format(DateTimeFormats.DISPLAY) + ")";
     }
 }
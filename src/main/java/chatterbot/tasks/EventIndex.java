@@ -0,0 +1,107 @@
+package chatterbot.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps the time taken up by events as a sorted map of disjoint busy intervals, so that the gaps between
+ * events after any moment can be walked in order without looking at every event.
+ *
+ * <p>Overlapping events are merged into one busy interval. The events themselves are kept sorted by start time,
+ * so removing one only rebuilds the busy interval it belonged to. An event that ends before it starts, which
+ * only a hand-edited file can hold, takes up no time.
+ */
+final class EventIndex {
+    private final TreeMap<LocalDateTime, List<LocalDateTime>> endsByStart = new TreeMap<>();
+    private final TreeMap<LocalDateTime, LocalDateTime> busyIntervals = new TreeMap<>();
+
+    /**
+     * Adds an event, merging it with the busy intervals it overlaps.
+     *
+     * @param event The event to add.
+     */
+    void add(Event event) {
+        LocalDateTime start = event.getStartTime();
+        LocalDateTime end = event.getEndTime();
+        endsByStart.computeIfAbsent(start, key -> new ArrayList<>(1)).add(end);
+        addBusy(start, end);
+    }
+
+    /**
+     * Removes an event, splitting the busy interval it belonged to if it was holding it together.
+     *
+     * @param event The event to remove.
+     */
+    void remove(Event event) {
+        LocalDateTime start = event.getStartTime();
+        List<LocalDateTime> ends = endsByStart.get(start);
+        if (ends == null || !ends.remove(event.getEndTime())) {
+            return;
+        }
+        if (ends.isEmpty()) {
+            endsByStart.remove(start);
+        }
+        if (event.getEndTime().isBefore(start)) {
+            return; // It was never busy
+        }
+
+        Map.Entry<LocalDateTime, LocalDateTime> block = busyIntervals.floorEntry(start);
+        assert block != null : "Event is outside every busy interval";
+        busyIntervals.remove(block.getKey());
+        for (Map.Entry<LocalDateTime, List<LocalDateTime>> entry
+                : endsByStart.subMap(block.getKey(), true, block.getValue(), true).entrySet()) {
+            for (LocalDateTime otherEnd : entry.getValue()) {
+                addBusy(entry.getKey(), otherEnd);
+            }
+        }
+    }
+
+    /**
+     * Returns the busy intervals that end at or after the given time, in order.
+     * Each interval is keyed by its start time, with its end time as the value.
+     *
+     * @param time The earliest time of interest.
+     * @return A read-only view starting with the interval that contains the time, if any.
+     */
+    NavigableMap<LocalDateTime, LocalDateTime> getBusyIntervalsFrom(LocalDateTime time) {
+        Map.Entry<LocalDateTime, LocalDateTime> containing = busyIntervals.floorEntry(time);
+        LocalDateTime from = containing != null && !containing.getValue().isBefore(time) ? containing.getKey() : time;
+        return Collections.unmodifiableNavigableMap(busyIntervals.tailMap(from, true));
+    }
+
+    /**
+     * Marks the interval as busy, merging it with the busy intervals it overlaps.
+     * Intervals that only touch are kept apart, as the free time search has always treated them.
+     */
+    private void addBusy(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            return;
+        }
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+
+        Map.Entry<LocalDateTime, LocalDateTime> before = busyIntervals.floorEntry(start);
+        if (before != null && before.getValue().isAfter(start)) {
+            mergedStart = before.getKey();
+            if (before.getValue().isAfter(mergedEnd)) {
+                mergedEnd = before.getValue();
+            }
+            busyIntervals.remove(before.getKey());
+        }
+
+        Map.Entry<LocalDateTime, LocalDateTime> after = busyIntervals.ceilingEntry(mergedStart);
+        while (after != null && after.getKey().isBefore(mergedEnd)) {
+            if (after.getValue().isAfter(mergedEnd)) {
+                mergedEnd = after.getValue();
+            }
+            busyIntervals.remove(after.getKey());
+            after = busyIntervals.ceilingEntry(mergedStart);
+        }
+        busyIntervals.put(mergedStart, mergedEnd);
+    }
+}
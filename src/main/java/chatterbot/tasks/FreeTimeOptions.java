@@ -0,0 +1,57 @@
+package chatterbot.tasks;
+
+/**
+ * Describes where to look for free time: how many days ahead, which hours of each day,
+ * how start times are rounded, and how many slots to return.
+ */
+public class FreeTimeOptions {
+    /** The search the {@code free} command has always done: the first slot in the next 7 days, 8 AM to 10 PM. */
+    public static final FreeTimeOptions DEFAULT = new FreeTimeOptions(7, 8, 22, 1, 1);
+
+    private final int days;
+    private final int dayStartHour;
+    private final int dayEndHour;
+    private final int stepMinutes;
+    private final int limit;
+
+    /**
+     * Constructs a FreeTimeOptions instance.
+     *
+     * @param days         The number of days to search, starting with today.
+     * @param dayStartHour The hour each day's search window opens, from 0 to 23.
+     * @param dayEndHour   The hour each day's search window closes, after the start and at most 24.
+     * @param stepMinutes  Slot start times are rounded up to a multiple of this many minutes after midnight.
+     * @param limit        The most slots to return. Each slot comes from a different free period.
+     */
+    public FreeTimeOptions(int days, int dayStartHour, int dayEndHour, int stepMinutes, int limit) {
+        assert days > 0 : "Days must be positive";
+        assert dayStartHour >= 0 && dayStartHour < dayEndHour && dayEndHour <= 24 : "Invalid working hours";
+        assert stepMinutes > 0 : "Step must be positive";
+        assert limit > 0 : "Limit must be positive";
+        this.days = days;
+        this.dayStartHour = dayStartHour;
+        this.dayEndHour = dayEndHour;
+        this.stepMinutes = stepMinutes;
+        this.limit = limit;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getDayStartHour() {
+        return dayStartHour;
+    }
+
+    public int getDayEndHour() {
+        return dayEndHour;
+    }
+
+    public int getStepMinutes() {
+        return stepMinutes;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
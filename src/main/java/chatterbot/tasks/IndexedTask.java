@@ -0,0 +1,48 @@
+package chatterbot.tasks;
+
+/**
+ * A task paired with its position in the task list, as returned by searches.
+ */
+public class IndexedTask {
+    private final int index;
+    private final Task task;
+
+    /**
+     * Constructs an IndexedTask.
+     *
+     * @param index The zero-based index of the task in the task list.
+     * @param task  The task.
+     */
+    public IndexedTask(int index, Task task) {
+        this.index = index;
+        this.task = task;
+    }
+
+    /**
+     * Returns the zero-based index of the task in the task list.
+     *
+     * @return The index of the task.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the task.
+     *
+     * @return The task.
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the task as it appears in a numbered listing.
+     *
+     * @return A string in the format 1. [T][ ] task description (#12).
+     */
+    @Override
+    public String toString() {
+        return (index + 1) + ". " + task.toStringWithId();
+    }
+}
@@ -0,0 +1,123 @@
+package chatterbot.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An inverted index from the words in task descriptions to the tasks that contain them.
+ * Tasks are identified by sequence numbers that only ever increase as tasks are added,
+ * so each posting list is a sorted array and a task's list position can be found by binary search.
+ *
+ * <p>A word is a maximal run of letters and digits, compared in lower case.
+ * The words are kept sorted, so both exact words and word prefixes are found without scanning every task.
+ */
+final class KeywordIndex {
+    private final TreeMap<String, Postings> postingsByWord = new TreeMap<>();
+
+    /**
+     * Records that the task with the given sequence number has the given description.
+     *
+     * @param description The task description.
+     * @param sequence    The sequence number of the task.
+     */
+    void add(String description, int sequence) {
+        for (String word : tokenize(description)) {
+            postingsByWord.computeIfAbsent(word, key -> new Postings()).add(sequence);
+        }
+    }
+
+    /**
+     * Forgets the task with the given sequence number and description.
+     *
+     * @param description The task description.
+     * @param sequence    The sequence number of the task.
+     */
+    void remove(String description, int sequence) {
+        for (String word : tokenize(description)) {
+            Postings postings = postingsByWord.get(word);
+            if (postings != null && postings.remove(sequence) && postings.size() == 0) {
+                postingsByWord.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain every word of the query.
+     *
+     * @param query The words to look for.
+     * @return The sorted sequence numbers of the matching tasks.
+     */
+    int[] findWords(String query) {
+        List<Postings> postingLists = new ArrayList<>();
+        for (String word : tokenize(query)) {
+            Postings postings = postingsByWord.get(word);
+            if (postings == null) {
+                return Postings.NONE;
+            }
+            postingLists.add(postings);
+        }
+        return Postings.intersect(postingLists);
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain a word starting with the given prefix.
+     *
+     * @param prefix The start of a word.
+     * @return The sorted sequence numbers of the matching tasks, without duplicates.
+     */
+    int[] findPrefix(String prefix) {
+        String lowerCasePrefix = prefix.toLowerCase();
+        if (lowerCasePrefix.isEmpty()) {
+            return Postings.NONE;
+        }
+
+        int[] matches = Postings.NONE;
+        int count = 0;
+        for (Map.Entry<String, Postings> entry : postingsByWord.tailMap(lowerCasePrefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(lowerCasePrefix)) {
+                break;
+            }
+            Postings postings = entry.getValue();
+            if (count + postings.size() > matches.length) {
+                matches = Arrays.copyOf(matches, Math.max(count + postings.size(), matches.length * 2));
+            }
+            postings.copyTo(matches, count);
+            count += postings.size();
+        }
+
+        Arrays.sort(matches, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || matches[distinct - 1] != matches[i]) {
+                matches[distinct++] = matches[i];
+            }
+        }
+        return Arrays.copyOf(matches, distinct);
+    }
+
+    /**
+     * Splits text into its distinct lower-case words.
+     *
+     * @param text The text to split.
+     * @return The words in order of first appearance.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int wordStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && wordStart < 0) {
+                wordStart = i;
+            } else if (!isWordChar && wordStart >= 0) {
+                words.add(text.substring(wordStart, i).toLowerCase());
+                wordStart = -1;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,313 @@
+package chatterbot.tasks;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of tasks that is changed by making a new version, which shares almost all of its structure
+ * with the old one. Holding on to a version therefore costs nothing until the list moves on, and then only the
+ * few nodes that changed.
+ *
+ * <p>The tasks are kept in a tree of nodes with up to 32 entries each, where every branch records how many tasks
+ * lie under each of its children. Reading, appending, replacing and removing a task copy only the nodes on the
+ * path to it, so each takes time logarithmic in the size, with a base of 32. Removals may leave nodes less than
+ * full; empty ones are dropped.
+ */
+public final class PersistentTaskVector extends AbstractList<Task> implements RandomAccess {
+    /** The empty vector. */
+    public static final PersistentTaskVector EMPTY = new PersistentTaskVector(new Node(new Object[0], null), 0, 0);
+
+    private static final int WIDTH = 32;
+
+    private final Node root;
+    private final int height; // 0 when the root is a leaf
+    private final int size;
+
+    private PersistentTaskVector(Node root, int height, int size) {
+        this.root = root;
+        this.height = height;
+        this.size = size;
+    }
+
+    /**
+     * Returns a vector with the given tasks, building full nodes bottom up.
+     *
+     * @param tasks The tasks, in order.
+     * @return A vector holding the tasks.
+     */
+    public static PersistentTaskVector of(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return EMPTY;
+        }
+
+        Node[] level = new Node[(tasks.size() + WIDTH - 1) / WIDTH];
+        Iterator<Task> iterator = tasks.iterator();
+        for (int i = 0; i < level.length; i++) {
+            Object[] items = new Object[Math.min(WIDTH, tasks.size() - i * WIDTH)];
+            for (int j = 0; j < items.length; j++) {
+                items[j] = iterator.next();
+            }
+            level[i] = new Node(items, null);
+        }
+
+        int height = 0;
+        while (level.length > 1) {
+            Node[] parents = new Node[(level.length + WIDTH - 1) / WIDTH];
+            for (int i = 0; i < parents.length; i++) {
+                Object[] children = Arrays.copyOfRange(level, i * WIDTH, Math.min(level.length, (i + 1) * WIDTH),
+                        Object[].class);
+                int[] ends = new int[children.length];
+                int end = 0;
+                for (int j = 0; j < children.length; j++) {
+                    end += ((Node) children[j]).count(height);
+                    ends[j] = end;
+                }
+                parents[i] = new Node(children, ends);
+            }
+            level = parents;
+            height++;
+        }
+        return new PersistentTaskVector(level[0], height, tasks.size());
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size);
+        Node node = root;
+        int offset = index;
+        for (int level = height; level > 0; level--) {
+            int child = node.childIndex(offset);
+            offset -= node.start(child);
+            node = (Node) node.items[child];
+        }
+        return (Task) node.items[offset];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a vector with the task added at the end.
+     *
+     * @param task The task to add.
+     * @return The new version.
+     */
+    public PersistentTaskVector plus(Task task) {
+        Node appended = append(root, height, task);
+        if (appended != null) {
+            return new PersistentTaskVector(appended, height, size + 1);
+        }
+        Node newRoot = new Node(new Object[] {root, path(height, task)}, new int[] {size, size + 1});
+        return new PersistentTaskVector(newRoot, height + 1, size + 1);
+    }
+
+    /**
+     * Returns a vector with the task at the index replaced.
+     *
+     * @param index The index of the task to replace.
+     * @param task  The new task.
+     * @return The new version.
+     */
+    public PersistentTaskVector with(int index, Task task) {
+        checkIndex(index, size);
+        return new PersistentTaskVector(replace(root, height, index, task), height, size);
+    }
+
+    /**
+     * Returns a vector without the task at the index.
+     *
+     * @param index The index of the task to remove.
+     * @return The new version.
+     */
+    public PersistentTaskVector minus(int index) {
+        checkIndex(index, size);
+        if (size == 1) {
+            return EMPTY;
+        }
+        Node newRoot = remove(root, height, index);
+        int newHeight = height;
+        while (newHeight > 0 && newRoot.items.length == 1) {
+            newRoot = (Node) newRoot.items[0];
+            newHeight--;
+        }
+        return new PersistentTaskVector(newRoot, newHeight, size - 1);
+    }
+
+    /**
+     * Returns an iterator that walks the leaves in turn instead of looking up each task from the root.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private Object[] leaf = new Object[0];
+            private int leafStart;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (index - leafStart == leaf.length) {
+                    Node node = root;
+                    int offset = index;
+                    for (int level = height; level > 0; level--) {
+                        int child = node.childIndex(offset);
+                        offset -= node.start(child);
+                        node = (Node) node.items[child];
+                    }
+                    leaf = node.items;
+                    leafStart = index - offset;
+                }
+                return (Task) leaf[index++ - leafStart];
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the node with the task appended below it, or {@code null} if the node has no room.
+     */
+    private static Node append(Node node, int height, Task task) {
+        int last = node.items.length - 1;
+        if (height == 0) {
+            return node.items.length == WIDTH ? null : new Node(copyWith(node.items, last + 1, task), null);
+        }
+
+        Node child = append((Node) node.items[last], height - 1, task);
+        if (child != null) {
+            int[] ends = node.ends.clone();
+            ends[last]++;
+            return new Node(copyWith(node.items, last, child), ends);
+        }
+        if (node.items.length == WIDTH) {
+            return null;
+        }
+        int[] ends = Arrays.copyOf(node.ends, last + 2);
+        ends[last + 1] = ends[last] + 1;
+        return new Node(copyWith(node.items, last + 1, path(height - 1, task)), ends);
+    }
+
+    /**
+     * Returns a new branch of the given height holding just the task.
+     */
+    private static Node path(int height, Task task) {
+        Node node = new Node(new Object[] {task}, null);
+        for (int level = 0; level < height; level++) {
+            node = new Node(new Object[] {node}, new int[] {1});
+        }
+        return node;
+    }
+
+    private static Node replace(Node node, int height, int index, Task task) {
+        if (height == 0) {
+            return new Node(copyWith(node.items, index, task), null);
+        }
+        int child = node.childIndex(index);
+        Node replaced = replace((Node) node.items[child], height - 1, index - node.start(child), task);
+        return new Node(copyWith(node.items, child, replaced), node.ends);
+    }
+
+    /**
+     * Returns a copy of the node without the task at the index, dropping any child left empty.
+     */
+    private static Node remove(Node node, int height, int index) {
+        if (height == 0) {
+            return new Node(copyWithout(node.items, index), null);
+        }
+
+        int child = node.childIndex(index);
+        Node shrunk = remove((Node) node.items[child], height - 1, index - node.start(child));
+        Object[] items;
+        int[] ends;
+        if (shrunk.items.length == 0) {
+            items = copyWithout(node.items, child);
+            ends = new int[items.length];
+            System.arraycopy(node.ends, 0, ends, 0, child);
+            System.arraycopy(node.ends, child + 1, ends, child, items.length - child);
+        } else {
+            items = copyWith(node.items, child, shrunk);
+            ends = node.ends.clone();
+        }
+        for (int i = child; i < ends.length; i++) {
+            ends[i]--;
+        }
+        return new Node(items, ends);
+    }
+
+    /**
+     * Returns a copy of the array with the item at the index, growing the array by one if the index is its length.
+     */
+    private static Object[] copyWith(Object[] items, int index, Object item) {
+        Object[] copy = Arrays.copyOf(items, Math.max(items.length, index + 1));
+        copy[index] = item;
+        return copy;
+    }
+
+    private static Object[] copyWithout(Object[] items, int index) {
+        Object[] copy = new Object[items.length - 1];
+        System.arraycopy(items, 0, copy, 0, index);
+        System.arraycopy(items, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    /**
+     * A leaf, holding tasks, or a branch, holding child nodes and the number of tasks up to the end of each child.
+     */
+    private static final class Node {
+        private final Object[] items;
+        private final int[] ends; // null for leaves
+
+        Node(Object[] items, int[] ends) {
+            this.items = items;
+            this.ends = ends;
+        }
+
+        /**
+         * Returns the number of tasks under this node, which is at the given height.
+         */
+        int count(int height) {
+            return height == 0 ? items.length : ends[ends.length - 1];
+        }
+
+        /**
+         * Returns the child holding the task at the index, counted from the start of this branch.
+         */
+        int childIndex(int index) {
+            int low = 0;
+            int high = ends.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] <= index) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the number of tasks in the children before the given one.
+         */
+        int start(int child) {
+            return child == 0 ? 0 : ends[child - 1];
+        }
+    }
+}
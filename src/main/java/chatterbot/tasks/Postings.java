@@ -0,0 +1,144 @@
+package chatterbot.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A sorted, growable array of task sequence numbers, as used by the search indexes.
+ * Sequence numbers are primitive ints, so a posting costs four bytes.
+ */
+final class Postings {
+    static final int[] NONE = new int[0];
+
+    private int[] sequences = new int[2];
+    private int size;
+
+    /**
+     * Adds a sequence number. New tasks have the highest sequence number, so this is usually an append.
+     *
+     * @param sequence The sequence number to add.
+     * @return {@code true} if it was not already present.
+     */
+    boolean add(int sequence) {
+        int position = size == 0 || sequences[size - 1] < sequence ? size
+                : Arrays.binarySearch(sequences, 0, size, sequence);
+        if (position < 0) {
+            position = -position - 1;
+        } else if (position < size) {
+            return false;
+        }
+        if (size == sequences.length) {
+            sequences = Arrays.copyOf(sequences, size * 2);
+        }
+        System.arraycopy(sequences, position, sequences, position + 1, size - position);
+        sequences[position] = sequence;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a sequence number.
+     *
+     * @param sequence The sequence number to remove.
+     * @return {@code true} if it was present.
+     */
+    boolean remove(int sequence) {
+        int position = Arrays.binarySearch(sequences, 0, size, sequence);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(sequences, position + 1, sequences, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int sequence) {
+        return Arrays.binarySearch(sequences, 0, size, sequence) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the sequence numbers into the array at the given offset.
+     */
+    void copyTo(int[] target, int offset) {
+        System.arraycopy(sequences, 0, target, offset, size);
+    }
+
+    /**
+     * Returns the sequence numbers present in every one of the posting lists.
+     * The lists are visited from shortest to longest, keeping only the sequence numbers found in each,
+     * so the work shrinks along with the result.
+     *
+     * @param postingLists The posting lists to intersect.
+     * @return The common sequence numbers, sorted.
+     */
+    static int[] intersect(List<Postings> postingLists) {
+        if (postingLists.isEmpty()) {
+            return NONE;
+        }
+
+        List<Postings> bySize = new ArrayList<>(postingLists);
+        bySize.sort(Comparator.comparingInt(Postings::size));
+
+        Postings smallest = bySize.get(0);
+        int[] matches = Arrays.copyOf(smallest.sequences, smallest.size);
+        int count = matches.length;
+        for (int i = 1; i < bySize.size() && count > 0; i++) {
+            Postings postings = bySize.get(i);
+            if (postings == bySize.get(i - 1)) {
+                continue;
+            }
+            count = postings.retain(matches, count);
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Keeps only the sequence numbers that are also in this list, compacting them to the front of the array.
+     *
+     * @return The number of sequence numbers kept.
+     */
+    private int retain(int[] matches, int count) {
+        int kept = 0;
+        int from = 0;
+        for (int j = 0; j < count && from < size; j++) {
+            int position = gallop(sequences, from, size, matches[j]);
+            if (position >= 0) {
+                matches[kept++] = matches[j];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Searches a sorted range for a value by probing forward from its start in doubling steps, then binary
+     * searching the last step. When looking up an increasing series of values, each search can start where
+     * the previous one ended, which touches far less memory than a full binary search per value.
+     *
+     * @param array The sorted array.
+     * @param from  The start of the range, inclusive.
+     * @param to    The end of the range, exclusive.
+     * @param value The value to find.
+     * @return The position of the value, or {@code -(insertion point) - 1} as for
+     *         {@link Arrays#binarySearch(int[], int, int, int)}.
+     */
+    static int gallop(int[] array, int from, int to, int value) {
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < to && array[high] < value) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(array, low, Math.min(high + 1, to), value);
+    }
+}
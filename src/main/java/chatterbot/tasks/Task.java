@@ -8,30 +8,56 @@ public abstract class Task {
     private static final String TODO_TYPE = "T";
     private static final String DEADLINE_TYPE = "D";
     private static final String EVENT_TYPE = "E";
+    private static final String ID_PREFIX = "#";
 
     protected String description;
     protected boolean isDone;
+    int id;
 
     /**
      * Constructs a Task instance with a given description.
      * Initially, the task is not marked as done.
+     * The description is shared with other tasks through the {@link DescriptionPool} if it is enabled.
      *
      * @param description The description of the task.
      */
     public Task(String description) {
-        this.description = description;
+        this(description, true);
+    }
+
+    /**
+     * Constructs a Task instance that optionally keeps its description as it is, for copies of tasks whose
+     * description went through the {@link DescriptionPool} already and for short-lived views of stored tasks.
+     *
+     * @param description The description of the task.
+     * @param shouldShare Whether to pass the description through the pool.
+     */
+    protected Task(String description, boolean shouldShare) {
+        this.description = shouldShare ? DescriptionPool.intern(description) : description;
         this.isDone = false;
     }
 
     /**
      * Converts a formatted string from the storage file back into a Task object.
      * This method is used to restore tasks when loading from the saved file.
+     * Lines saved by older versions have no leading id field; their tasks are given ids by the task list.
      *
-     * @param line The formatted string representing a task (e.g., "T | 1 | read book").
+     * @param line The formatted string representing a task (e.g., "#12 | T | 1 | read book").
      * @return A Task object (Todo, Deadline, or Event) if the format is valid, otherwise null.
      */
     public static Task fromFileFormat(String line) {
-        String[] parts = line.split(" \\| ");
+        int id = 0;
+        String fields = line;
+        if (line.startsWith(ID_PREFIX)) {
+            int idEnd = line.indexOf(" | ");
+            if (idEnd < 0) {
+                return null;
+            }
+            id = parseId(line.substring(ID_PREFIX.length(), idEnd));
+            fields = line.substring(idEnd + 3);
+        }
+
+        String[] parts = fields.split(" \\| ");
         if (parts.length < 3) {
             return null;
         }
@@ -63,9 +89,22 @@ public abstract class Task {
         if (isDone) {
             task.markAsDone();
         }
+        task.id = id;
         return task;
     }
 
+    /**
+     * Parses a stored id, treating a malformed one as missing so that the task still loads.
+     */
+    private static int parseId(String text) {
+        try {
+            int id = Integer.parseInt(text);
+            return id > 0 ? id : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * Converts the task to a file-friendly format for storage.
      *
@@ -73,6 +112,72 @@ public abstract class Task {
      */
     public abstract String toFileFormat();
 
+    /**
+     * Returns the id field that starts the task's line in the storage file, or an empty string if it has no id.
+     *
+     * @return The id followed by a field separator, e.g. "#12 | ".
+     */
+    protected String getFileFormatIdField() {
+        return id > 0 ? ID_PREFIX + id + " | " : "";
+    }
+
+    /**
+     * Returns the stable id of the task. Ids are assigned by the task list in increasing order and never reused,
+     * so unlike the task's position they do not change when other tasks are deleted.
+     *
+     * @return The id, or 0 if the task has not been given one yet.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the id of a task read from storage. New tasks are given ids when they are added to a task list.
+     *
+     * @param id The stored id, or 0 if there is none.
+     */
+    public void setId(int id) {
+        assert id >= 0 : "Task id cannot be negative";
+        this.id = id;
+    }
+
+    /**
+     * Returns a new task with the same contents, done status and id, which later changes to this task do not affect.
+     *
+     * @return A copy of the task.
+     */
+    public abstract Task copy();
+
+    /**
+     * Gives a copy of this task the done status and id of this task.
+     *
+     * @param copy A new task with the same contents.
+     * @return The copy.
+     */
+    protected Task copyStateTo(Task copy) {
+        copy.isDone = isDone;
+        copy.id = id;
+        return copy;
+    }
+
+    /**
+     * Returns the description of the task.
+     *
+     * @return The task description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns whether the task is done.
+     *
+     * @return {@code true} if the task is marked as done.
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Returns the status icon representing whether the task is done.
      *
@@ -106,4 +211,13 @@ public abstract class Task {
         return "[" + this.getStatusIcon() + "] " + this.description;
     }
 
+    /**
+     * Returns the task as it appears in listings, followed by its id if it has one.
+     *
+     * @return A string in the format [T][ ] task description (#12).
+     */
+    public String toStringWithId() {
+        return id > 0 ? this + " (" + ID_PREFIX + id + ")" : toString();
+    }
+
 }
@@ -0,0 +1,15 @@
+package chatterbot.tasks;
+
+/**
+ * A list of tasks that can tell a task's id without creating the task object, so a {@link TaskList} can check
+ * the ids of a list it wraps without parsing or decoding every task.
+ */
+public interface TaskIdSource {
+    /**
+     * Returns the id of the task at the index.
+     *
+     * @param index The index of the task.
+     * @return The id, or 0 if the task has none or it cannot be read without creating the task.
+     */
+    int getTaskId(int index);
+}
@@ -1,12 +1,16 @@
 package chatterbot.tasks;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import chatterbot.Ui;
 
@@ -14,13 +18,32 @@ import chatterbot.Ui;
  * Manages a list of tasks and provides methods to add, remove, and modify tasks.
  */
 public class TaskList {
+    /** The default limit on the postings of the substring index, about 128 MiB of sequence numbers. */
+    public static final int DEFAULT_SUBSTRING_INDEX_MAX_POSTINGS = 32 * 1024 * 1024;
+
     private final List<Task> tasks;
+    private TaskListListener listener;
+    private long version;
+    private int nextId;
+    private Map<Integer, Task> tasksById; // Built on the first lookup by id
+    private volatile PersistentTaskVector snapshot; // Published after every change once snapshots are enabled
+
+    // The search indexes are built on first use, then kept current by every add and remove
+    private int[] sequences;
+    private int nextSequence;
+    private KeywordIndex keywordIndex;
+    private TrigramIndex trigramIndex;
+    private DueIndex dueIndex;
+    private int substringIndexMaxPostings;
+    private boolean isSubstringIndexOverLimit;
+    private EventIndex eventIndex;
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
         this.tasks = new ArrayList<>();
+        this.nextId = 1;
     }
 
     /**
@@ -30,16 +53,108 @@ public class TaskList {
      */
     public TaskList(List<Task> tasks) {
         this.tasks = new ArrayList<>(tasks);
+        this.nextId = assignMissingIds(this.tasks);
+    }
+
+    /**
+     * Constructs a TaskList backed directly by the given list.
+     * The flag only distinguishes this constructor from the copying one.
+     */
+    TaskList(List<Task> tasks, boolean isWrapped) {
+        this.tasks = tasks;
+        this.nextId = assignMissingIds(tasks);
     }
 
     /**
-     * Adds a task to the task list.
+     * Constructs a TaskList that takes ownership of the given list instead of copying it.
+     * This keeps special lists, such as lazily loaded ones, working as they are.
+     * The caller must not use the list afterwards.
+     *
+     * @param tasks The list of tasks to manage.
+     * @return A TaskList backed by the given list.
+     */
+    public static TaskList wrap(List<Task> tasks) {
+        return new TaskList(tasks, true);
+    }
+
+    /**
+     * Gives every task without an id one and returns the id for the next new task.
+     * Each task without an id, or with one out of order, as in a file saved before tasks had ids, is given
+     * the id after the highest one before it. A list that can read ids without creating tasks, such as a lazily
+     * loaded one, is checked that way first and left untouched if its ids already increase throughout.
+     *
+     * @param tasks The tasks, in list order.
+     * @return The id after the highest one in the list.
+     */
+    public static int assignMissingIds(List<Task> tasks) {
+        if (tasks instanceof TaskIdSource) {
+            int nextId = nextIdIfIncreasing((TaskIdSource) tasks, tasks.size());
+            if (nextId > 0) {
+                return nextId;
+            }
+        }
+
+        int maxId = 0;
+        for (Task task : tasks) {
+            if (task.id <= maxId) {
+                task.setId(++maxId);
+            } else {
+                maxId = task.id;
+            }
+        }
+        return maxId + 1;
+    }
+
+    /**
+     * Returns the id after the last one if the ids read from the list increase throughout, or 0 otherwise.
+     */
+    private static int nextIdIfIncreasing(TaskIdSource tasks, int size) {
+        int maxId = 0;
+        for (int i = 0; i < size; i++) {
+            int id = tasks.getTaskId(i);
+            if (id <= maxId) {
+                return 0;
+            }
+            maxId = id;
+        }
+        return maxId + 1;
+    }
+
+    /**
+     * Registers a listener to be notified of every change to this task list.
+     * Only one listener is supported; passing {@code null} removes the current one.
+     *
+     * @param listener The listener to notify.
+     */
+    public void setListener(TaskListListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Adds a task to the task list, giving it the next id.
      *
      * @param task The task to be added.
      */
     public void addTask(Task task) {
         assert task != null : "Task to be added cannot be null";
+        task.id = nextId++;
         tasks.add(task);
+        version++;
+        if (tasksById != null) {
+            tasksById.put(task.id, task);
+        }
+        if (sequences != null) {
+            indexTask(tasks.size() - 1);
+        }
+        if (eventIndex != null && task instanceof Event) {
+            eventIndex.add((Event) task);
+        }
+        if (snapshot != null) {
+            snapshot = snapshot.plus(task);
+        }
+        if (listener != null) {
+            listener.onTaskAdded(task);
+        }
     }
 
     /**
@@ -50,7 +165,115 @@ public class TaskList {
      */
     public Task removeTask(int index) {
         assert index >= 0 && index < tasks.size() : "Index out of bounds for removing task";
-        return tasks.remove(index);
+        Task removedTask = tasks.remove(index);
+        version++;
+        if (tasksById != null) {
+            tasksById.remove(removedTask.id);
+        }
+        if (sequences != null) {
+            int sequence = sequences[index];
+            System.arraycopy(sequences, index + 1, sequences, index, tasks.size() - index);
+            unindexTask(removedTask, sequence);
+        }
+        if (eventIndex != null && removedTask instanceof Event) {
+            eventIndex.remove((Event) removedTask);
+        }
+        if (snapshot != null) {
+            snapshot = snapshot.minus(index);
+        }
+        if (listener != null) {
+            listener.onTaskRemoved(index);
+        }
+        return removedTask;
+    }
+
+    /**
+     * Removes several tasks from the task list at once.
+     * The remaining tasks are moved up in a single pass, instead of once per removed task.
+     *
+     * @param indices The indices of the tasks to remove, all within the list.
+     * @return The removed tasks, in list order.
+     */
+    public List<Task> removeTasks(BitSet indices) {
+        assert indices.length() <= tasks.size() : "Index out of bounds for removing tasks";
+        List<Task> removedTasks = new ArrayList<>(indices.cardinality());
+        if (indices.isEmpty()) {
+            return removedTasks;
+        }
+
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            Task removedTask = tasks.get(i);
+            removedTasks.add(removedTask);
+            if (eventIndex != null && removedTask instanceof Event) {
+                eventIndex.remove((Event) removedTask);
+            }
+            if (tasksById != null) {
+                tasksById.remove(removedTask.id);
+            }
+            if (sequences != null) {
+                unindexTask(removedTask, sequences[i]);
+            }
+        }
+
+        int size = tasks.size();
+        if (sequences != null) {
+            int kept = indices.nextSetBit(0);
+            for (int i = kept; i < size; i++) {
+                if (!indices.get(i)) {
+                    sequences[kept++] = sequences[i];
+                }
+            }
+        }
+        compact(indices);
+        version++;
+        if (snapshot != null) {
+            snapshot = removeFromSnapshot(snapshot, indices);
+        }
+
+        if (listener != null) {
+            // Reporting from the back keeps each reported index valid for replaying the removals in order
+            for (int i = indices.previousSetBit(size - 1); i >= 0; i = indices.previousSetBit(i - 1)) {
+                listener.onTaskRemoved(i);
+            }
+        }
+        return removedTasks;
+    }
+
+    /**
+     * Returns the snapshot without the tasks at the given indices, which are already gone from the list.
+     * A few tasks are removed one by one from the back; for many, a new snapshot of the list is quicker.
+     */
+    private PersistentTaskVector removeFromSnapshot(PersistentTaskVector current, BitSet indices) {
+        if (indices.cardinality() > tasks.size() / 8) {
+            return PersistentTaskVector.of(tasks);
+        }
+        PersistentTaskVector updated = current;
+        for (int i = indices.length() - 1; i >= 0; i = indices.previousSetBit(i - 1)) {
+            updated = updated.minus(i);
+        }
+        return updated;
+    }
+
+    /**
+     * Removes the tasks at the given indices from the backing list.
+     * A single run of tasks is cleared at once; otherwise each kept task is moved to its final place
+     * and the leftover tail is cleared.
+     */
+    private void compact(BitSet indices) {
+        int first = indices.nextSetBit(0);
+        int end = indices.length();
+        if (indices.nextClearBit(first) == end) {
+            tasks.subList(first, end).clear();
+            return;
+        }
+
+        int kept = first;
+        for (int i = first; i < tasks.size(); i++) {
+            if (!indices.get(i)) {
+                tasks.set(kept++, tasks.get(i));
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
     }
 
     /**
@@ -63,6 +286,61 @@ public class TaskList {
         return tasks.get(index);
     }
 
+    /**
+     * Retrieves the task with the given id.
+     *
+     * @param id The id of the task.
+     * @return The task, or {@code null} if no task in the list has the id.
+     */
+    public Task getTaskById(int id) {
+        return getTasksById().get(id);
+    }
+
+    /**
+     * Returns the position of the task with the given id.
+     * Ids increase along the list, so the position is found by binary search once the id is known to exist.
+     *
+     * @param id The id of the task.
+     * @return The index of the task, or -1 if no task in the list has the id.
+     */
+    public int indexOfId(int id) {
+        Task task = getTaskById(id);
+        if (task == null) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = tasks.get(middle).id;
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        // The ids were edited out of order in the storage file
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).id == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Map<Integer, Task> getTasksById() {
+        if (tasksById == null) {
+            tasksById = new HashMap<>(tasks.size() * 4 / 3 + 1);
+            for (Task task : tasks) {
+                tasksById.put(task.id, task);
+            }
+        }
+        return tasksById;
+    }
+
     /**
      * Returns the total number of tasks in the list.
      *
@@ -72,36 +350,143 @@ public class TaskList {
         return tasks.size();
     }
 
+    /**
+     * Returns the mutation version of the task list.
+     * The version changes whenever a task is added, removed, marked or unmarked,
+     * so callers can compare versions to tell whether there is anything new to save.
+     *
+     * @return The current mutation version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Returns the list of tasks.
+     * Once snapshots are enabled, this is the latest snapshot, which later changes do not affect.
      *
      * @return The task list.
      */
     public List<Task> getAllTasks() {
-        return tasks;
+        PersistentTaskVector current = snapshot;
+        return current != null ? current : tasks;
+    }
+
+    /**
+     * Starts publishing an immutable snapshot of the tasks after every change. Taking the snapshot then copies
+     * nothing and needs no lock, so it can be handed to a background saver or read from another thread.
+     * Each change copies only a few small nodes of the snapshot, and marking a task replaces it with a marked
+     * copy, since the snapshots share the task objects. Snapshots hold every task as an object, so they undo
+     * the savings of lazily loaded and columnar lists.
+     */
+    public void enableSnapshots() {
+        if (snapshot == null) {
+            snapshot = PersistentTaskVector.of(tasks);
+        }
+    }
+
+    /**
+     * Returns the tasks as they are now, in a list that never changes.
+     * Once snapshots are enabled, this is the latest published snapshot; otherwise every task is copied.
+     *
+     * @return An unmodifiable snapshot of the tasks.
+     */
+    public List<Task> getSnapshot() {
+        PersistentTaskVector current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        List<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copies.add(task.copy());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * Returns whether a snapshot is published after every change.
+     *
+     * @return {@code true} once snapshots are enabled.
+     */
+    public boolean isPublishingSnapshots() {
+        return snapshot != null;
     }
 
     /**
      * Marks a task as done.
+     * Marking a task that is already done leaves the list unchanged.
      *
      * @param index The index of the task to mark as done.
      */
     public void markTaskAsDone(int index) {
-        tasks.get(index).markAsDone();
+        Task task = tasks.get(index);
+        if (task.isDone) {
+            return;
+        }
+        task = getTaskToChange(index, task);
+        task.markAsDone();
+        publishChange(index, task);
+        version++;
+        if (dueIndex != null) {
+            dueIndex.remove(task, sequences[index]);
+        }
+        if (listener != null) {
+            listener.onTaskMarked(index, true);
+        }
     }
 
     /**
      * Marks a task as not done.
+     * Unmarking a task that is not done leaves the list unchanged.
      *
      * @param index The index of the task to unmark.
      */
     public void markTaskAsNotDone(int index) {
-        tasks.get(index).markAsNotDone();
+        Task task = tasks.get(index);
+        if (!task.isDone) {
+            return;
+        }
+        task = getTaskToChange(index, task);
+        task.markAsNotDone();
+        publishChange(index, task);
+        version++;
+        if (dueIndex != null) {
+            dueIndex.add(task, sequences[index]);
+        }
+        if (listener != null) {
+            listener.onTaskMarked(index, false);
+        }
+    }
+
+    /**
+     * Returns the task to change in place of the one at the index. Published snapshots share the task objects
+     * and must not change, so the task is then replaced by a copy.
+     */
+    private Task getTaskToChange(int index, Task task) {
+        if (snapshot == null) {
+            return task;
+        }
+        Task copy = task.copy();
+        tasks.set(index, copy);
+        if (tasksById != null) {
+            tasksById.put(copy.id, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Publishes a snapshot with the changed task at the index, if snapshots are enabled.
+     */
+    private void publishChange(int index, Task task) {
+        if (snapshot != null) {
+            snapshot = snapshot.with(index, task);
+        }
     }
 
     /**
      * Prints all tasks in the task list.
      * If the task list is empty, it notifies the user.
+     * The listing is streamed to the UI, so it is never held in memory as a whole.
      *
      * @param ui The UI used to display messages.
      */
@@ -111,24 +496,306 @@ public class TaskList {
             return;
         }
 
-        String taskList = tasks.stream()
-                .map(task -> (tasks.indexOf(task) + 1) + ". " + task)
-                .collect(Collectors.joining("\n"));
+        ui.showMessage("Here are the tasks in your list:", listTasks(0, tasks.size()));
+    }
 
-        ui.showMessage("Here are the tasks in your list:\n" + taskList);
+    /**
+     * Prints one page of the task list.
+     * If the task list is empty or the page does not exist, it notifies the user.
+     *
+     * @param ui       The UI used to display messages.
+     * @param page     The page to print, starting from 1.
+     * @param pageSize The number of tasks on each page.
+     */
+    public void printTasks(Ui ui, int page, int pageSize) {
+        assert pageSize > 0 : "Page size must be positive";
+        if (tasks.isEmpty()) {
+            ui.showMessage("Your task list is empty!");
+            return;
+        }
+
+        int pageCount = (tasks.size() + pageSize - 1) / pageSize;
+        if (page < 1 || page > pageCount) {
+            ui.showMessage("There is no page " + page + ". Your list has " + pageCount + " pages.");
+            return;
+        }
+
+        int start = (page - 1) * pageSize;
+        int end = Math.min(start + pageSize, tasks.size());
+        ui.showMessage("Here are the tasks in your list (page " + page + " of " + pageCount + "):",
+                listTasks(start, end));
     }
 
+    /**
+     * Returns the numbered listing lines for the tasks in the given range, formatted one at a time.
+     */
+    private Iterator<String> listTasks(int start, int end) {
+        return new Iterator<>() {
+            private int index = start;
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String line = (index + 1) + ". " + tasks.get(index).toStringWithId();
+                index++;
+                return line;
+            }
+        };
+    }
+
+    /**
+     * Enables the trigram index for substring searches with {@link #findTasks(String)}.
+     * The index is built on the next search. If it would hold more than the given number of postings,
+     * it is dropped and searches scan the list instead.
+     *
+     * @param maxPostings The most postings the index may hold, at four bytes each.
+     */
+    public void enableSubstringIndex(int maxPostings) {
+        assert maxPostings > 0 : "Posting limit must be positive";
+        substringIndexMaxPostings = maxPostings;
+        isSubstringIndexOverLimit = false;
+    }
 
     /**
-     * Finds and returns a list of tasks that contain the given keyword.
+     * Returns whether substring searches are currently answered through the trigram index.
+     *
+     * @return {@code true} if the index is enabled and within its posting limit.
+     */
+    public boolean isSubstringIndexActive() {
+        return substringIndexMaxPostings > 0 && !isSubstringIndexOverLimit;
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain the given keyword, ignoring case.
+     * If the substring index is active, only the tasks that contain every trigram of the keyword are checked.
      *
      * @param keyword The search keyword.
-     * @return A list of tasks matching the keyword.
+     * @return The matching tasks with their indices, in list order.
+     */
+    public List<IndexedTask> findTasks(String keyword) {
+        String lowerCaseKeyword = keyword.toLowerCase();
+        TrigramIndex index = getTrigramIndex();
+        int[] candidates = index == null ? null : index.findCandidates(lowerCaseKeyword);
+        if (candidates != null) {
+            List<IndexedTask> matchingTasks = new ArrayList<>();
+            for (IndexedTask candidate : toIndexedTasks(candidates)) {
+                if (candidate.getTask().description.toLowerCase().contains(lowerCaseKeyword)) {
+                    matchingTasks.add(candidate);
+                }
+            }
+            return matchingTasks;
+        }
+
+        List<IndexedTask> matchingTasks = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.description.toLowerCase().contains(lowerCaseKeyword)) {
+                matchingTasks.add(new IndexedTask(i, task));
+            }
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain every word of the query, ignoring case.
+     * Unlike {@link #findTasks(String)}, words must match whole, so {@code book} does not find {@code notebook}.
+     * The search uses a keyword index instead of scanning every task.
+     *
+     * @param query The words to look for.
+     * @return The matching tasks with their indices, in list order.
+     */
+    public List<IndexedTask> findTasksByWords(String query) {
+        return toIndexedTasks(getKeywordIndex().findWords(query));
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain a word starting with the given prefix, ignoring case.
+     * The search uses a keyword index instead of scanning every task.
+     *
+     * @param prefix The start of a word.
+     * @return The matching tasks with their indices, in list order.
+     */
+    public List<IndexedTask> findTasksByPrefix(String prefix) {
+        return toIndexedTasks(getKeywordIndex().findPrefix(prefix));
+    }
+
+    /**
+     * Finds the unfinished deadlines and events due at or after the given time, soonest first.
+     * A deadline is due at its due time and an event at its start time.
+     * The search uses a due-time index, so the next due task is found without scanning the list.
+     *
+     * @param from  The earliest due time to include.
+     * @param limit The most tasks to return.
+     * @return The upcoming tasks with their indices.
+     */
+    public List<IndexedTask> findUpcomingTasks(LocalDateTime from, int limit) {
+        return toIndexedTasksInAnyOrder(getDueIndex().findFrom(from, limit));
+    }
+
+    /**
+     * Finds the unfinished deadlines and events due before the given time, including overdue ones, soonest first.
+     *
+     * @param before The time all returned tasks are due before.
+     * @return The tasks due before the time with their indices.
+     */
+    public List<IndexedTask> findTasksDueBefore(LocalDateTime before) {
+        return toIndexedTasksInAnyOrder(getDueIndex().findBefore(before));
+    }
+
+    /**
+     * Returns the due-time index, building it from the current tasks on the first due-time search.
+     */
+    private DueIndex getDueIndex() {
+        if (dueIndex == null) {
+            assignSequences();
+            DueIndex index = new DueIndex();
+            for (int i = 0; i < tasks.size(); i++) {
+                index.add(tasks.get(i), sequences[i]);
+            }
+            dueIndex = index;
+        }
+        return dueIndex;
+    }
+
+    /**
+     * Returns the keyword index, building it from the current tasks if this is the first indexed search.
+     */
+    private KeywordIndex getKeywordIndex() {
+        if (keywordIndex == null) {
+            assignSequences();
+            KeywordIndex index = new KeywordIndex();
+            for (int i = 0; i < tasks.size(); i++) {
+                index.add(tasks.get(i).description, sequences[i]);
+            }
+            keywordIndex = index;
+        }
+        return keywordIndex;
+    }
+
+    /**
+     * Returns the trigram index, building it from the current tasks if needed,
+     * or {@code null} if it is disabled or over its posting limit.
+     */
+    private TrigramIndex getTrigramIndex() {
+        if (trigramIndex == null && isSubstringIndexActive()) {
+            assignSequences();
+            TrigramIndex index = new TrigramIndex(substringIndexMaxPostings);
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!index.add(tasks.get(i).description, sequences[i])) {
+                    isSubstringIndexOverLimit = true;
+                    return null;
+                }
+            }
+            trigramIndex = index;
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Builds every lookup structure that is otherwise built on first use, so that later lookups and searches
+     * only read the list. Structures that are already built are kept.
      */
-    public List<Task> findTasks(String keyword) {
-        return tasks.stream()
-                .filter(task -> task.description.toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+    void buildIndexes() {
+        getTasksById();
+        getKeywordIndex();
+        getDueIndex();
+        getTrigramIndex();
+        getEventIndex();
+    }
+
+    /**
+     * Numbers the current tasks in list order, unless they already are.
+     */
+    private void assignSequences() {
+        if (sequences != null) {
+            return;
+        }
+        sequences = new int[Math.max(16, tasks.size())];
+        for (nextSequence = 0; nextSequence < tasks.size(); nextSequence++) {
+            sequences[nextSequence] = nextSequence;
+        }
+    }
+
+    /**
+     * Gives the newly added task at the index the next sequence number and adds it to the search indexes.
+     */
+    private void indexTask(int index) {
+        if (nextSequence == Integer.MAX_VALUE) {
+            // Out of sequence numbers: drop the indexes, which are rebuilt and renumbered on the next search
+            sequences = null;
+            keywordIndex = null;
+            trigramIndex = null;
+            dueIndex = null;
+            return;
+        }
+        if (index == sequences.length) {
+            sequences = Arrays.copyOf(sequences, index * 2);
+        }
+        int sequence = nextSequence++;
+        sequences[index] = sequence;
+        Task task = tasks.get(index);
+        String description = task.description;
+        if (keywordIndex != null) {
+            keywordIndex.add(description, sequence);
+        }
+        if (dueIndex != null) {
+            dueIndex.add(task, sequence);
+        }
+        if (trigramIndex != null && !trigramIndex.add(description, sequence)) {
+            trigramIndex = null;
+            isSubstringIndexOverLimit = true;
+        }
+    }
+
+    /**
+     * Removes a task that has left the list from the search indexes.
+     */
+    private void unindexTask(Task removedTask, int sequence) {
+        if (keywordIndex != null) {
+            keywordIndex.remove(removedTask.description, sequence);
+        }
+        if (trigramIndex != null) {
+            trigramIndex.remove(removedTask.description, sequence);
+        }
+        if (dueIndex != null) {
+            dueIndex.remove(removedTask, sequence);
+        }
+    }
+
+    /**
+     * Looks up the list positions of the given sequence numbers.
+     * Sequence numbers increase along the list, so each position is searched for after the previous one.
+     */
+    private List<IndexedTask> toIndexedTasks(int[] matches) {
+        List<IndexedTask> matchingTasks = new ArrayList<>(matches.length);
+        int from = 0;
+        for (int sequence : matches) {
+            int index = Postings.gallop(sequences, from, tasks.size(), sequence);
+            assert index >= 0 : "Indexed task is missing from the list";
+            matchingTasks.add(new IndexedTask(index, tasks.get(index)));
+            from = index + 1;
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Looks up the list positions of sequence numbers that are not in list order, by binary search for each.
+     */
+    private List<IndexedTask> toIndexedTasksInAnyOrder(int[] matches) {
+        List<IndexedTask> matchingTasks = new ArrayList<>(matches.length);
+        for (int sequence : matches) {
+            int index = Arrays.binarySearch(sequences, 0, tasks.size(), sequence);
+            assert index >= 0 : "Indexed task is missing from the list";
+            matchingTasks.add(new IndexedTask(index, tasks.get(index)));
+        }
+        return matchingTasks;
     }
 
     /**
@@ -138,65 +805,144 @@ public class TaskList {
      * @return A string representing the nearest free time slot.
      */
     public String findFreeTime(int durationInHours) {
-        List<Event> events = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task instanceof Event) {
-                events.add((Event) task);
-            }
-        }
-        events.sort(Comparator.comparing(Event::getStartTime));
-
-        LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+        return findFreeTime(durationInHours, LocalDateTime.now());
+    }
 
-        for (int dayOffset = 0; dayOffset < 7; dayOffset++) {  // Check next 7 days
-            LocalDateTime searchStart = now.plusDays(dayOffset);
+    /**
+     * Finds the nearest free slot of the given duration after the given time,
+     * within the next 7 days from 8 AM to 10 PM.
+     *
+     * @param durationInHours The required free duration (in hours).
+     * @param currentTime     The time to search from.
+     * @return A string representing the nearest free time slot.
+     */
+    public String findFreeTime(int durationInHours, LocalDateTime currentTime) {
+        return findFreeTime(Duration.ofHours(durationInHours), FreeTimeOptions.DEFAULT, currentTime);
+    }
 
-            // Define working hours from 8 AM to 10 PM
-            LocalDateTime startOfDay = searchStart.withHour(8).withMinute(0);
-            LocalDateTime endOfDay = searchStart.withHour(22).withMinute(0);
+    /**
+     * Finds free slots of the given duration after the given time and describes them.
+     *
+     * @param duration    The required free duration.
+     * @param options     Where to look and how many slots to return.
+     * @param currentTime The time to search from.
+     * @return A message listing the free slots found, or saying there are none.
+     */
+    public String findFreeTime(Duration duration, FreeTimeOptions options, LocalDateTime currentTime) {
+        List<LocalDateTime> slots = findFreeSlots(duration, options, currentTime);
+        if (slots.isEmpty()) {
+            return "No free slots available in the next " + pluralize(options.getDays(), "day") + " for "
+                    + formatDuration(duration, false) + ".";
+        }
+        if (options.getLimit() == 1) {
+            return "The nearest " + formatDuration(duration, true) + " free slot is on "
+                    + formatFreeSlot(slots.get(0), duration);
+        }
 
-            // If it's today, start from current time; otherwise, from 8 AM
-            if (dayOffset == 0 && now.isAfter(startOfDay) && now.isBefore(endOfDay)) {
-                searchStart = now;
-            } else {
-                searchStart = startOfDay;
-            }
+        StringBuilder message = new StringBuilder("Here are the nearest ")
+                .append(formatDuration(duration, true)).append(" free slots:");
+        for (int i = 0; i < slots.size(); i++) {
+            message.append('\n').append(i + 1).append(". ").append(formatFreeSlot(slots.get(i), duration));
+        }
+        return message.toString();
+    }
 
-            LocalDateTime lastEndTime = searchStart;
+    /**
+     * Finds the earliest free slots of the given duration after the given time.
+     * The busy intervals, with overlapping events already merged, are swept once in time order,
+     * so the cost grows with the number of days and intervals in the horizon rather than with all events.
+     * Each slot starts at the beginning of a different free period, rounded up to the option's step.
+     *
+     * @param duration    The required free duration, which must be positive.
+     * @param options     Where to look and how many slots to return.
+     * @param currentTime The time to search from.
+     * @return The start times of the slots found, earliest first.
+     */
+    public List<LocalDateTime> findFreeSlots(Duration duration, FreeTimeOptions options, LocalDateTime currentTime) {
+        assert !duration.isNegative() && !duration.isZero() : "Duration must be positive";
+        LocalDateTime from = currentTime.withSecond(0).withNano(0);
+        Iterator<Map.Entry<LocalDateTime, LocalDateTime>> busyIntervals =
+                getEventIndex().getBusyIntervalsFrom(from).entrySet().iterator();
+        Map.Entry<LocalDateTime, LocalDateTime> nextBusy = busyIntervals.hasNext() ? busyIntervals.next() : null;
+        LocalDateTime busyUntil = from;
 
-            for (Event event : events) {
-                LocalDateTime start = event.getStartTime();
-                LocalDateTime end = event.getEndTime();
+        List<LocalDateTime> slots = new ArrayList<>();
+        LocalDateTime midnight = from.toLocalDate().atStartOfDay();
+        for (int day = 0; day < options.getDays() && slots.size() < options.getLimit(); day++) {
+            LocalDateTime windowStart = midnight.plusHours(options.getDayStartHour());
+            LocalDateTime windowEnd = midnight.plusHours(options.getDayEndHour());
+            midnight = midnight.plusDays(1);
 
-                // Skip past events
-                if (end.isBefore(lastEndTime)) {
-                    continue;
+            LocalDateTime freeFrom = latest(windowStart, busyUntil);
+            while (freeFrom.isBefore(windowEnd) && slots.size() < options.getLimit()) {
+                boolean isLastGap = nextBusy == null || !nextBusy.getKey().isBefore(windowEnd);
+                LocalDateTime freeUntil = isLastGap ? windowEnd : nextBusy.getKey();
+                LocalDateTime slotStart = roundUp(freeFrom, options.getStepMinutes());
+                if (!slotStart.plus(duration).isAfter(freeUntil)) {
+                    slots.add(slotStart);
                 }
-
-                if (ChronoUnit.HOURS.between(lastEndTime, start) >= durationInHours
-                        && lastEndTime.plusHours(durationInHours).isBefore(endOfDay)) {
-                    return formatFreeSlot(lastEndTime, durationInHours);
+                if (isLastGap) {
+                    break;
                 }
 
-                lastEndTime = end;
+                // The interval may run into later days, so it is only consumed once it has been passed
+                busyUntil = latest(busyUntil, nextBusy.getValue());
+                freeFrom = latest(freeFrom, busyUntil);
+                nextBusy = busyIntervals.hasNext() ? busyIntervals.next() : null;
             }
+        }
+        return slots;
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    /**
+     * Rounds the time up to a multiple of the step, counting minutes from midnight.
+     */
+    private static LocalDateTime roundUp(LocalDateTime time, int stepMinutes) {
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+        int remainder = minuteOfDay % stepMinutes;
+        return remainder == 0 ? time : time.plusMinutes(stepMinutes - remainder);
+    }
 
-            if (ChronoUnit.HOURS.between(lastEndTime, endOfDay) >= durationInHours) {
-                return formatFreeSlot(lastEndTime, durationInHours);
+    /**
+     * Returns the event index, building it from the current tasks on the first free time search.
+     */
+    private EventIndex getEventIndex() {
+        if (eventIndex == null) {
+            EventIndex index = new EventIndex();
+            for (Task task : tasks) {
+                if (task instanceof Event) {
+                    index.add((Event) task);
+                }
             }
+            eventIndex = index;
         }
+        return eventIndex;
+    }
 
-        return "No free slots available in the next 7 days for " + durationInHours + " hours.";
+    /**
+     * Formats a free slot as its start and end times.
+     */
+    private String formatFreeSlot(LocalDateTime startTime, Duration duration) {
+        return startTime.format(DateTimeFormats.FREE_SLOT) + " to "
+                + startTime.plus(duration).format(DateTimeFormats.FREE_SLOT);
     }
 
     /**
-     * Formats the output message for a free slot.
+     * Formats a duration in whole hours if it is one, otherwise in minutes,
+     * either as an adjective (e.g. 4-hour) or as an amount (e.g. 4 hours).
      */
-    private String formatFreeSlot(LocalDateTime startTime, int durationInHours) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm a");
+    private static String formatDuration(Duration duration, boolean isAdjective) {
+        long minutes = duration.toMinutes();
+        long amount = minutes % 60 == 0 ? minutes / 60 : minutes;
+        String unit = minutes % 60 == 0 ? "hour" : "minute";
+        return isAdjective ? amount + "-" + unit : pluralize(amount, unit);
+    }
 
-        return "The nearest " + durationInHours + "-hour free slot is on "
-                + startTime.format(formatter) + " to "
-                + startTime.plusHours(durationInHours).format(formatter);
+    private static String pluralize(long count, String unit) {
+        return count + " " + unit + (count == 1 ? "" : "s");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package chatterbot.tasks;
+
+/**
+ * Receives a callback for every change made to a {@link TaskList}.
+ * Used by storage backends that persist individual mutations instead of whole snapshots.
+ */
+public interface TaskListListener {
+    /**
+     * Called after a task has been appended to the list.
+     *
+     * @param task The task that was added.
+     */
+    void onTaskAdded(Task task);
+
+    /**
+     * Called after a task has been removed from the list.
+     *
+     * @param index The index the task occupied before removal.
+     */
+    void onTaskRemoved(int index);
+
+    /**
+     * Called after a task has been marked as done or not done.
+     *
+     * @param index  The index of the task.
+     * @param isDone The new completion status of the task.
+     */
+    void onTaskMarked(int index, boolean isDone);
+}
@@ -13,6 +13,21 @@ public class Todo extends Task {
         super(description);
     }
 
+    /**
+     * Constructs a Todo task that optionally keeps its description as it is.
+     *
+     * @param description The description of the task.
+     * @param shouldShare Whether to pass the description through the {@link DescriptionPool}.
+     */
+    protected Todo(String description, boolean shouldShare) {
+        super(description, shouldShare);
+    }
+
+    @Override
+    public Task copy() {
+        return copyStateTo(new Todo(description, false));
+    }
+
     /**
      * Returns a formatted string representation of the Todo task.
      *
@@ -26,10 +41,10 @@ public class Todo extends Task {
     /**
      * {@inheritDoc}
      *
-     * @return A string in the format T | 0 | description (where 0 represents not done, 1 represents done).
+     * @return A string in the format #12 | T | 0 | description (where 0 represents not done, 1 represents done).
      */
     @Override
     public String toFileFormat() {
-        return "T | " + (isDone ? "1" : "0") + " | " + description;
+        return getFileFormatIdField() + "T | " + (isDone ? "1" : "0") + " | " + description;
     }
 }
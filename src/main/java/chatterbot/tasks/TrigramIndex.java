@@ -0,0 +1,97 @@
+package chatterbot.tasks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index from every three-character sequence of the lower-case task descriptions to the tasks containing it.
+ * Any description that contains a keyword also contains all of the keyword's trigrams, so intersecting their
+ * posting lists narrows a substring search to a few candidates, which are then checked with
+ * {@link String#contains(CharSequence)} as before.
+ *
+ * <p>The index counts its postings and reports when an addition takes it over its limit,
+ * so that the owner can drop it and go back to scanning instead of growing without bound.
+ */
+final class TrigramIndex {
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+    private final long maxPostings;
+    private long postingCount;
+
+    /**
+     * Constructs an empty TrigramIndex.
+     *
+     * @param maxPostings The most postings the index may hold.
+     */
+    TrigramIndex(int maxPostings) {
+        this.maxPostings = maxPostings;
+    }
+
+    /**
+     * Records that the task with the given sequence number has the given description.
+     *
+     * @param description The task description.
+     * @param sequence    The sequence number of the task.
+     * @return {@code false} if the index is now over its posting limit.
+     */
+    boolean add(String description, int sequence) {
+        String text = description.toLowerCase();
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            if (postingsByTrigram.computeIfAbsent(trigram(text, i), key -> new Postings()).add(sequence)) {
+                postingCount++;
+            }
+        }
+        return postingCount <= maxPostings;
+    }
+
+    /**
+     * Forgets the task with the given sequence number and description.
+     *
+     * @param description The task description.
+     * @param sequence    The sequence number of the task.
+     */
+    void remove(String description, int sequence) {
+        String text = description.toLowerCase();
+        for (int i = 0; i + TRIGRAM_LENGTH <= text.length(); i++) {
+            Long key = trigram(text, i);
+            Postings postings = postingsByTrigram.get(key);
+            if (postings != null && postings.remove(sequence)) {
+                postingCount--;
+                if (postings.size() == 0) {
+                    postingsByTrigram.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tasks whose descriptions contain every trigram of the keyword.
+     * This is a superset of the tasks whose descriptions contain the keyword.
+     *
+     * @param lowerCaseKeyword The keyword, already in lower case.
+     * @return The sorted sequence numbers of the candidates, or {@code null} if the keyword is too short
+     *         to have a trigram, in which case every task is a candidate.
+     */
+    int[] findCandidates(String lowerCaseKeyword) {
+        if (lowerCaseKeyword.length() < TRIGRAM_LENGTH) {
+            return null;
+        }
+
+        List<Postings> postingLists = new ArrayList<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= lowerCaseKeyword.length(); i++) {
+            Postings postings = postingsByTrigram.get(trigram(lowerCaseKeyword, i));
+            if (postings == null) {
+                return Postings.NONE;
+            }
+            postingLists.add(postings);
+        }
+        return Postings.intersect(postingLists);
+    }
+
+    private static long trigram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+}
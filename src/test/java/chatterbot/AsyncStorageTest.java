@@ -0,0 +1,89 @@
+package chatterbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbot.tasks.Task;
+import chatterbot.tasks.Todo;
+
+public class AsyncStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testBurstIsCoalescedIntoOneWrite() {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        AsyncStorage storage = new AsyncStorage(filePath, 10_000, FsyncPolicy.NEVER);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Todo("task " + i));
+            storage.saveTasks(tasks);
+        }
+        storage.close();
+
+        assertEquals(1, storage.getSaveCount());
+        assertEquals(100, new Storage(filePath).loadTasks().size());
+    }
+
+    @Test
+    public void testFailedSaveDoesNotStopTheWriter() throws InterruptedException {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        AsyncStorage storage = new AsyncStorage(filePath, 10_000, FsyncPolicy.NEVER);
+
+        storage.saveTasks(List.of(new UnsavableTodo(new IllegalStateException("cannot format"))));
+        Thread flusher = new Thread(storage::flush);
+        flusher.start();
+        flusher.join(10_000);
+        assertFalse(flusher.isAlive());
+
+        storage.saveTasks(List.of(new Todo("read book")));
+        storage.close();
+        assertEquals(1, storage.getSaveCount());
+        assertEquals(1, new Storage(filePath).loadTasks().size());
+    }
+
+    @Test
+    public void testFlushReportsDeadWriterAndSavesOnCallerThread() {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        AsyncStorage storage = new AsyncStorage(filePath, 10_000, FsyncPolicy.NEVER);
+        Error failure = new StackOverflowError();
+
+        storage.saveTasks(List.of(new UnsavableTodo(failure)));
+        IllegalStateException e = assertThrows(IllegalStateException.class, storage::flush);
+        assertSame(failure, e.getCause());
+
+        storage.saveTasks(List.of(new Todo("read book"), new Todo("buy milk")));
+        storage.close();
+        assertEquals(2, new Storage(filePath).loadTasks().size());
+    }
+
+    /**
+     * A task that cannot be written to the storage file.
+     */
+    private static class UnsavableTodo extends Todo {
+        private final Throwable failure;
+
+        UnsavableTodo(Throwable failure) {
+            super("unsavable");
+            this.failure = failure;
+        }
+
+        @Override
+        public String toFileFormat() {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package chatterbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbot.tasks.Task;
+import chatterbot.tasks.Todo;
+
+public class ChatterBotTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadOnlyCommandsDoNotSave() {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        ChatterBot chatterBot = new ChatterBot(storage);
+
+        chatterBot.getResponse("list");
+        chatterBot.getResponse("find book");
+        chatterBot.getResponse("free 2h");
+        chatterBot.getResponse("blah");
+        assertEquals(0, storage.getSaveCount());
+
+        chatterBot.getResponse("todo read book");
+        assertEquals(1, storage.getSaveCount());
+
+        chatterBot.getResponse("list");
+        chatterBot.getResponse("unmark 1");
+        assertEquals(1, storage.getSaveCount());
+
+        chatterBot.getResponse("mark 1");
+        assertEquals(2, storage.getSaveCount());
+    }
+
+    @Test
+    public void testLongListReplyKeepsOnlyItsFirstLines() {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            saved.add(new Todo("task number " + i));
+        }
+        storage.saveTasks(saved);
+        StringBuilder printed = new StringBuilder();
+        ChatterBot chatterBot = new ChatterBot(storage, new Ui() {
+            @Override
+            protected void print(CharSequence text) {
+                printed.append(text);
+            }
+
+            @Override
+            protected void println(CharSequence text) {
+                printed.append(text).append('\n');
+            }
+        });
+
+        String response = chatterBot.getResponse("list");
+        assertTrue(response.length() < 17 * 1024);
+        assertTrue(response.endsWith(" more lines. Use list <page> to see your tasks a page at a time."));
+        assertTrue(printed.toString().contains("2000. [T][ ] task number 1999"));
+    }
+
+    @Test
+    public void testArgumentsAreScannedWithoutExceptions() {
+        ChatterBot chatterBot = new ChatterBot(new Storage(tempDir.resolve("tasks.txt").toString()), new Ui(true));
+        for (int i = 1; i <= 5; i++) {
+            chatterBot.getResponse("todo task " + i);
+        }
+
+        assertTrue(chatterBot.getResponse("list 2\t 2").startsWith("Here are the tasks in your list (page 2 of 3)"));
+        assertTrue(chatterBot.getResponse("list 2 x").startsWith("Invalid number format!"));
+        assertTrue(chatterBot.getResponse("list 99999999999").startsWith("Invalid number format!"));
+        assertTrue(chatterBot.getResponse("mark 1, 3 - 4,#5,").startsWith("Nice! I've marked these 4 tasks"));
+        assertTrue(chatterBot.getResponse("mark 1,,2").contains("mark <num>"));
+        assertTrue(chatterBot.getResponse("unmark #x").contains("unmark <num>"));
+
+        assertTrue(chatterBot.getResponse("free 1h30m /days 2 /hours 9-17 /top 2").contains("free slot"));
+        assertTrue(chatterBot.getResponse("free 90m /step").startsWith("Invalid format!"));
+        assertTrue(chatterBot.getResponse("free 30m1h").startsWith("Invalid format!"));
+        assertTrue(chatterBot.getResponse("free 2h /hours 9-x").startsWith("Invalid number format!"));
+        assertTrue(chatterBot.getResponse("upcoming -3").startsWith("Invalid number format!"));
+    }
+
+    @Test
+    public void testBatchSavesOnceAndReportsErrors() throws IOException {
+        Path commandFile = tempDir.resolve("commands.txt");
+        Files.write(commandFile, List.of("# setup", "todo read book", "todo buy milk", "", "mark 5", "mark 2"));
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        ChatterBot chatterBot = new ChatterBot(storage);
+
+        String response = chatterBot.getResponse("batch " + commandFile);
+        assertTrue(response.startsWith("Ran 4 commands in "));
+        assertTrue(response.contains("1 failed:\nLine 5: "));
+        assertEquals(1, storage.getSaveCount());
+        assertEquals(2, storage.loadTasks().size());
+    }
+
+    @Test
+    public void testDeadlineAndEventArgumentsAreFoundByMarker() {
+        ChatterBot chatterBot = new ChatterBot(new Storage(tempDir.resolve("tasks.txt").toString()));
+
+        assertTrue(chatterBot.getResponse("DeadLine return book /by 2025-02-20 1800")
+                .contains("[D][ ] return book (by: Feb 20 2025, 6:00 PM)"));
+        assertTrue(chatterBot.getResponse("event walk /to school /from 2025-02-21 0800 /to 2025-02-21 0830")
+                .contains("[E][ ] walk /to school (from: Feb 21 2025, 8:00 AM to: Feb 21 2025, 8:30 AM)"));
+        assertTrue(chatterBot.getResponse("deadline /by 2025-02-20 1800").startsWith("Oops! Something is missing"));
+        assertTrue(chatterBot.getResponse("event meeting /from 2025-02-21 0800")
+                .startsWith("Oops! Something is missing"));
+        assertTrue(chatterBot.getResponse("event meeting /from 2025-02-21 0900 /to 2025-02-21 0800")
+                .startsWith("An event cannot end before it starts!"));
+        assertTrue(chatterBot.getResponse("deadlines").startsWith("Looks like you got creative"));
+    }
+
+    @Test
+    public void testAbbreviationsAndAddedCommandsAreResolved() {
+        ChatterBot chatterBot = new ChatterBot(new Storage(tempDir.resolve("tasks.txt").toString()));
+
+        assertTrue(chatterBot.getResponse("dl return book /by 2025-02-20 1800").contains("[D][ ] return book"));
+        assertTrue(chatterBot.getResponse("ev walk /from 2025-02-21 0800 /to 2025-02-21 0830").contains("[E][ ] walk"));
+        assertTrue(chatterBot.getResponse("Unm 1").startsWith("OK, I've marked this task as not done yet"));
+        assertTrue(chatterBot.getResponse("del #2").startsWith("Noted. I've removed this task"));
+        assertTrue(chatterBot.getResponse("d 1").startsWith("Looks like you got creative"));
+        assertTrue(chatterBot.getResponse("by").startsWith("Looks like you got creative"));
+
+        Parser.registerCommand("ping", (input, tasks, ui, storage) -> {
+            ui.showMessage("pong" + input.substring(4));
+            return true;
+        });
+        assertEquals("pong 3", chatterBot.getResponse("pi 3"));
+    }
+}
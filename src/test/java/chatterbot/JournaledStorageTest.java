@@ -0,0 +1,59 @@
+package chatterbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskList;
+import chatterbot.tasks.Todo;
+
+public class JournaledStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReplayAfterCompaction() {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        JournaledStorage storage = new JournaledStorage(filePath, 3, FsyncPolicy.NEVER);
+        TaskList tasks = new TaskList(storage.loadTasks());
+        storage.attach(tasks);
+
+        for (int i = 0; i < 10; i++) {
+            tasks.addTask(new Todo("task " + i));
+            storage.saveTasks(tasks.getAllTasks());
+        }
+        tasks.markTaskAsDone(2);
+        tasks.removeTask(0);
+        storage.saveTasks(tasks.getAllTasks());
+        storage.close();
+
+        List<Task> reloaded = new JournaledStorage(filePath, 3, FsyncPolicy.NEVER).loadTasks();
+        assertEquals(9, reloaded.size());
+        assertEquals("[T][ ] task 1", reloaded.get(0).toString());
+        assertEquals("[T][X] task 2", reloaded.get(1).toString());
+        assertEquals("[T][ ] task 9", reloaded.get(8).toString());
+    }
+
+    @Test
+    public void testSaveWithoutChangesWritesNothing() {
+        Path filePath = tempDir.resolve("tasks.txt");
+        JournaledStorage storage = new JournaledStorage(filePath.toString());
+        TaskList tasks = new TaskList(storage.loadTasks());
+        storage.attach(tasks);
+
+        storage.saveTasks(tasks.getAllTasks());
+        assertFalse(filePath.resolveSibling("tasks.txt.journal").toFile().exists());
+
+        tasks.addTask(new Todo("read book"));
+        storage.saveTasks(tasks.getAllTasks());
+        assertTrue(filePath.resolveSibling("tasks.txt.journal").toFile().exists());
+        storage.close();
+    }
+}
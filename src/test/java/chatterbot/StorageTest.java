@@ -0,0 +1,219 @@
+package chatterbot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbot.tasks.Deadline;
+import chatterbot.tasks.Event;
+import chatterbot.tasks.Task;
+import chatterbot.tasks.TaskList;
+import chatterbot.tasks.Todo;
+
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    private List<Task> createTasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", "2025-02-20 1800"));
+        tasks.add(new Event("project meeting ünïcödé", "2025-02-22 1400", "2025-02-22 1600"));
+        tasks.get(1).markAsDone();
+        return tasks;
+    }
+
+    @Test
+    public void testMigrateBetweenFormats() throws Exception {
+        Path filePath = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(filePath.toString(), FsyncPolicy.NEVER);
+        List<Task> tasks = createTasks();
+        storage.saveTasks(tasks);
+
+        storage.migrate(StorageFormat.BINARY, tasks);
+        assertTrue(BinaryTaskFormat.isBinary(filePath));
+        Storage reloaded = new Storage(filePath.toString(), FsyncPolicy.NEVER);
+        List<Task> binaryTasks = reloaded.loadTasks();
+        assertEquals(StorageFormat.BINARY, reloaded.getFormat());
+        assertEquals(tasks.toString(), binaryTasks.toString());
+
+        reloaded.migrate(StorageFormat.TEXT, binaryTasks);
+        assertEquals("D | 1 | return book | 2025-02-20 1800",
+                Files.readAllLines(filePath).get(1));
+        assertEquals(tasks.toString(), new Storage(filePath.toString()).loadTasks().toString());
+    }
+
+    @Test
+    public void testBinaryFormatKeepsDistantDates() throws Exception {
+        Path filePath = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(filePath.toString(), FsyncPolicy.NEVER);
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("far future", "9999-12-31 2359"));
+        tasks.add(new Event("long ago", "0001-01-01 0000", "1969-12-31 2359"));
+        storage.migrate(StorageFormat.BINARY, tasks);
+
+        tasks.add(new Todo("saved again"));
+        storage.saveTasks(tasks);
+        assertEquals(tasks.toString(), new Storage(filePath.toString(), FsyncPolicy.NEVER).loadTasks().toString());
+    }
+
+    @Test
+    public void testCorruptBinaryFileIsReportedInsteadOfCrashing() throws Exception {
+        Path filePath = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(filePath.toString(), FsyncPolicy.NEVER);
+        storage.migrate(StorageFormat.BINARY, createTasks());
+        byte[] valid = Files.readAllBytes(filePath);
+        int countOffset = Integer.BYTES + Short.BYTES + Long.BYTES;
+
+        byte[] hugeCount = valid.clone();
+        ByteBuffer.wrap(hugeCount).putInt(countOffset, Integer.MAX_VALUE);
+        byte[] negativeCount = valid.clone();
+        ByteBuffer.wrap(negativeCount).putInt(countOffset, -1);
+        byte[] hugeLength = valid.clone();
+        int lengthOffset = countOffset + Integer.BYTES + 2; // After the first task's tag and one-byte id
+        hugeLength[lengthOffset] = (byte) 0xFF;
+        hugeLength[lengthOffset + 1] = (byte) 0xFF;
+        hugeLength[lengthOffset + 2] = (byte) 0xFF;
+        hugeLength[lengthOffset + 3] = (byte) 0xFF;
+        hugeLength[lengthOffset + 4] = 0x0F;
+
+        for (byte[] corrupt : List.of(hugeCount, negativeCount, hugeLength, Arrays.copyOf(valid, valid.length - 3))) {
+            Files.write(filePath, corrupt);
+            assertThrows(IOException.class, () -> BinaryTaskFormat.read(filePath));
+            assertEquals(0, new Storage(filePath.toString()).loadTasks().size());
+        }
+    }
+
+    @Test
+    public void testParallelLoadPreservesOrder() throws Exception {
+        Path filePath = tempDir.resolve("tasks.txt");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.addAll(createTasks());
+        }
+        new Storage(filePath.toString(), FsyncPolicy.NEVER).saveTasks(tasks);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(tasks.toString(), ParallelTaskLoader.load(filePath, pool).toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLazyLoadParsesOnlyAccessedTasks() {
+        Path filePath = tempDir.resolve("tasks.txt");
+        List<Task> tasks = createTasks();
+        Storage storage = new Storage(filePath.toString(), FsyncPolicy.NEVER);
+        storage.saveTasks(tasks);
+
+        storage.setLazyLoading(true);
+        LazyTaskList lazyTasks = (LazyTaskList) storage.loadTasks();
+        assertEquals(3, lazyTasks.size());
+        assertEquals(0, lazyTasks.countMaterialized());
+
+        assertEquals(tasks.get(1).toString(), lazyTasks.get(1).toString());
+        assertEquals(1, lazyTasks.countMaterialized());
+
+        storage.saveTasks(lazyTasks);
+        assertEquals(1, lazyTasks.countMaterialized());
+        assertEquals(tasks.toString(), new Storage(filePath.toString()).loadTasks().toString());
+    }
+
+    @Test
+    public void testLazyListIdsAreCheckedWithoutParsing() throws Exception {
+        Path withIds = tempDir.resolve("ids.txt");
+        Files.write(withIds, List.of("#1 | T | 0 | read book", "#4 | T | 1 | buy milk", "#9 | T | 0 | call mom"));
+        LazyTaskList lazyTasks = LazyTaskList.open(withIds);
+        TaskList tasks = TaskList.wrap(lazyTasks);
+        assertEquals(0, lazyTasks.countMaterialized());
+        tasks.addTask(new Todo("water plants"));
+        assertEquals(10, tasks.getTask(3).getId());
+
+        Path mixed = tempDir.resolve("mixed.txt");
+        Files.write(mixed, List.of("#1 | T | 0 | read book", "T | 1 | buy milk", "#+3 | T | 0 | pay rent",
+                "#2 | T | 0 | call mom"));
+        tasks = TaskList.wrap(LazyTaskList.open(mixed));
+        tasks.addTask(new Todo("water plants"));
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i + 1, tasks.getTask(i).getId());
+        }
+    }
+
+    @Test
+    public void testColumnarLoadWritesThroughViews() {
+        Path filePath = tempDir.resolve("tasks.txt");
+        List<Task> tasks = createTasks();
+        Storage storage = new Storage(filePath.toString(), FsyncPolicy.NEVER);
+        storage.saveTasks(tasks);
+
+        storage.setColumnarLoading(true);
+        TaskList columnarTasks = TaskList.wrap(storage.loadTasks());
+        assertTrue(columnarTasks.getAllTasks() instanceof ColumnarTaskList);
+        assertEquals(tasks.toString(), columnarTasks.getAllTasks().toString());
+        assertEquals(3, columnarTasks.getTask(2).getId());
+
+        columnarTasks.markTaskAsDone(0);
+        columnarTasks.removeTask(1);
+        columnarTasks.addTask(new Todo("return laptop"));
+        assertEquals("[[T][X] read book, [E][ ] project meeting ünïcödé (from: Feb 22 2025, 2:00 PM "
+                + "to: Feb 22 2025, 4:00 PM), [T][ ] return laptop]", columnarTasks.getAllTasks().toString());
+        assertEquals(1, columnarTasks.findTasksDueBefore(LocalDateTime.of(2025, 3, 1, 0, 0)).size());
+
+        storage.saveTasks(columnarTasks.getAllTasks());
+        assertEquals("#4 | T | 0 | return laptop", new Storage(filePath.toString()).loadTasks().get(2).toFileFormat());
+    }
+
+    @Test
+    public void testColumnarListKeepsDistantDatesAndInsertsInPlace() {
+        ColumnarTaskList tasks = new ColumnarTaskList(createTasks());
+        tasks.add(1, new Deadline("far future", "9999-12-31 2359"));
+        tasks.add(0, new Event("long ago", "0001-01-01 0000", "0001-01-01 0100"));
+        tasks.get(2).markAsDone();
+
+        assertEquals(5, tasks.size());
+        assertEquals("[D][X] far future (by: Dec 31 9999, 11:59 PM)", tasks.get(2).toString());
+        assertEquals("[E][ ] long ago (from: Jan 01 0001, 12:00 AM to: Jan 01 0001, 1:00 AM)", tasks.get(0).toString());
+        assertEquals("[D][X] return book (by: Feb 20 2025, 6:00 PM)", tasks.get(3).toString());
+    }
+
+    @Test
+    public void testColumnarBulkDeleteMovesRowsWithoutCopyingDescriptions() {
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            saved.addAll(createTasks());
+        }
+        ColumnarTaskList columns = new ColumnarTaskList(saved);
+        long capacityBytes = columns.getCapacityBytes();
+        TaskList tasks = TaskList.wrap(columns);
+
+        BitSet indices = new BitSet();
+        indices.set(0);
+        indices.set(4);
+        tasks.removeTasks(indices);
+        tasks.getTask(0).markAsDone();
+        columns.set(1, new Todo("read book"));
+
+        assertEquals(capacityBytes, columns.getCapacityBytes());
+        assertEquals(2998, tasks.size());
+        assertEquals("[D][X] return book (by: Feb 20 2025, 6:00 PM)", tasks.getTask(0).toString());
+        assertEquals("[T][ ] read book", tasks.getTask(1).toString());
+        assertEquals("[E][ ] project meeting ünïcödé (from: Feb 22 2025, 2:00 PM to: Feb 22 2025, 4:00 PM)",
+                tasks.getTask(2997).toString());
+    }
+}
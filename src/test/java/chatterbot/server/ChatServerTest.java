@@ -0,0 +1,92 @@
+package chatterbot.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbot.Storage;
+
+public class ChatServerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testUsersHaveSeparateTasksThatSurviveEviction() throws IOException {
+        try (ChatServer server = new ChatServer(tempDir, Storage.SNAPSHOT_MODE, Duration.ofHours(1), 10)) {
+            server.start(0);
+            server.serveInBackground();
+            try (Client alice = new Client(server.getPort()); Client bob = new Client(server.getPort())) {
+                assertTrue(alice.send("todo read book").startsWith("Please say who you are first"));
+                assertEquals("Hello alice! What can I do for you?", alice.send("user alice"));
+                bob.send("user bob");
+
+                assertTrue(alice.send("todo read book").contains("[T][ ] read book"));
+                assertFalse(bob.send("list").contains("read book"));
+                assertTrue(Files.exists(tempDir.resolve("alice.txt")));
+                assertEquals(2, server.getSessionCount());
+
+                server.evictIdleSessions(System.nanoTime() + Duration.ofHours(2).toNanos());
+                assertEquals(0, server.getSessionCount());
+                assertTrue(alice.send("list").contains("read book"));
+
+                assertTrue(bob.send("bye").startsWith("Bye"));
+                assertNull(bob.reader.readLine());
+                assertEquals(1, server.getSessionCount());
+            }
+        }
+    }
+
+    @Test
+    public void testFileCommandsAreRefused() throws IOException {
+        try (ChatServer server = new ChatServer(tempDir, Storage.SNAPSHOT_MODE, Duration.ofHours(1), 10)) {
+            server.start(0);
+            server.serveInBackground();
+            try (Client mallory = new Client(server.getPort())) {
+                mallory.send("user mallory");
+                assertEquals("Sorry, batch is not available here.", mallory.send("batch /etc/passwd"));
+                assertEquals("Sorry, batch is not available here.", mallory.send("bat /etc/passwd"));
+                assertEquals("Sorry, convert is not available here.", mallory.send("convert binary"));
+                assertEquals("Your task list is empty!", mallory.send("list"));
+            }
+        }
+    }
+
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String send(String line) throws IOException {
+            writer.write(line + "\n");
+            writer.flush();
+            return ChatServer.readReply(reader);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
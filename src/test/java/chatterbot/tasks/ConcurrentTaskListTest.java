@@ -0,0 +1,117 @@
+package chatterbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chatterbot.LazyTaskList;
+import chatterbot.Ui;
+
+public class ConcurrentTaskListTest {
+    private static final int WRITES = 20_000;
+    private static final int READERS = 4;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadersAndSnapshotsStayConsistentDuringWrites() throws InterruptedException {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 0);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // The writer marks each task done right after adding it and sometimes deletes the oldest task,
+        // so a consistent snapshot has ids in increasing order and at most its last task not done
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < WRITES; i++) {
+                Task task = i % 3 == 0 ? new Todo("read chapter " + i)
+                        : new Event("meeting " + i, start.plusHours(i), start.plusHours(i).plusMinutes(30));
+                tasks.addTask(task);
+                tasks.markTaskAsDone(tasks.size() - 1);
+                if (i % 4 == 3) {
+                    tasks.removeTask(0);
+                }
+            }
+            isWriting.set(false);
+        });
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            int reader = r;
+            readers.add(new Thread(() -> {
+                Ui ui = new Ui(true);
+                try {
+                    while (isWriting.get()) {
+                        List<Task> snapshot = tasks.getAllTasks();
+                        int notDoneCount = 0;
+                        for (int i = 0; i < snapshot.size(); i++) {
+                            assertTrue(i == 0 || snapshot.get(i - 1).getId() < snapshot.get(i).getId());
+                            notDoneCount += snapshot.get(i).isDone() ? 0 : 1;
+                        }
+                        assertTrue(notDoneCount <= 1, "Snapshot has " + notDoneCount + " tasks not done");
+
+                        switch (reader) {
+                        case 0:
+                            tasks.findTasksByWords("chapter");
+                            tasks.findTasks("meeting 1");
+                            break;
+                        case 1:
+                            tasks.findFreeSlots(Duration.ofHours(1), FreeTimeOptions.DEFAULT, start);
+                            tasks.findUpcomingTasks(start, 5);
+                            break;
+                        case 2:
+                            tasks.printTasks(ui);
+                            tasks.indexOfId(snapshot.isEmpty() ? 1 : snapshot.get(0).getId());
+                            break;
+                        default:
+                            tasks.findTasksByPrefix("meet");
+                            tasks.findTasksDueBefore(start.plusDays(30));
+                            break;
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        readers.forEach(Thread::start);
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(WRITES - WRITES / 4, tasks.size());
+        assertEquals(WRITES - WRITES / 4, tasks.findTasks("").size());
+        assertEquals(WRITES, tasks.getTask(tasks.size() - 1).getId());
+    }
+
+    @Test
+    public void testLazyListIsParsedBeforeReadersShareIt() throws IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        Files.write(file, List.of("#1 | T | 0 | read book", "#2 | T | 1 | buy milk"));
+        LazyTaskList lazyTasks = LazyTaskList.open(file);
+
+        ConcurrentTaskList tasks = ConcurrentTaskList.wrap(lazyTasks);
+        assertEquals(2, lazyTasks.countMaterialized());
+        assertSame(tasks.getTask(1), tasks.getTask(1));
+        assertEquals(2, tasks.getTask(1).getId());
+    }
+}
@@ -0,0 +1,35 @@
+package chatterbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTimeFormatsTest {
+
+    @Test
+    public void testParseStorageMatchesFormatter() {
+        String[] inputs = {"2025-02-20 1800", "1999-12-31 2359", "2024-02-29 0000", "2025-02-29 1200", "2025-02-20 2400"};
+        for (String input : inputs) {
+            assertEquals(LocalDateTime.parse(input, DateTimeFormats.STORAGE), DateTimeFormats.parseStorage(input));
+        }
+    }
+
+    @Test
+    public void testParseStorageRejectsInvalidInput() {
+        assertThrows(DateTimeParseException.class, () -> DateTimeFormats.parseStorage("2025-02-20 2500"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeFormats.parseStorage("2025-13-01 1200"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeFormats.parseStorage("2025-02-20 18:00"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeFormats.parseStorage("Sunday"));
+    }
+
+    @Test
+    public void testFormatStorage() {
+        LocalDateTime dateTime = LocalDateTime.of(2025, 2, 3, 4, 5);
+        assertEquals("2025-02-03 0405", DateTimeFormats.formatStorage(dateTime));
+        assertEquals(dateTime.format(DateTimeFormats.STORAGE), DateTimeFormats.formatStorage(dateTime));
+    }
+}
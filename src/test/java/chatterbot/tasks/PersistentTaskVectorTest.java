@@ -0,0 +1,49 @@
+package chatterbot.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PersistentTaskVectorTest {
+    @Test
+    public void testRandomChangesMatchArrayListAndKeepOldVersions() {
+        Random random = new Random(42);
+        List<Task> expected = new ArrayList<>();
+        PersistentTaskVector vector = PersistentTaskVector.EMPTY;
+        List<List<Task>> keptExpected = new ArrayList<>();
+        List<PersistentTaskVector> keptVersions = new ArrayList<>();
+
+        for (int step = 0; step < 40_000; step++) {
+            int choice = random.nextInt(10);
+            if (expected.isEmpty() || choice < 6) {
+                Task task = new Todo("task " + step);
+                expected.add(task);
+                vector = vector.plus(task);
+            } else if (choice < 8) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                vector = vector.minus(index);
+            } else {
+                int index = random.nextInt(expected.size());
+                Task task = new Todo("replaced " + step);
+                expected.set(index, task);
+                vector = vector.with(index, task);
+            }
+            if (step % 5_000 == 0) {
+                keptExpected.add(new ArrayList<>(expected));
+                keptVersions.add(vector);
+            }
+        }
+
+        assertEquals(expected, vector);
+        assertEquals(expected, new ArrayList<>(vector));
+        assertEquals(expected, PersistentTaskVector.of(expected));
+        for (int i = 0; i < keptVersions.size(); i++) {
+            assertEquals(keptExpected.get(i), keptVersions.get(i));
+        }
+    }
+}
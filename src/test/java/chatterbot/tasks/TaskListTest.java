@@ -1,9 +1,24 @@
 package chatterbot.tasks;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import chatterbot.Ui;
+
 public class TaskListTest {
 
     @Test
@@ -23,4 +38,299 @@ public class TaskListTest {
         tasks.removeTask(0);
         assertEquals(0, tasks.size());
     }
+
+    @Test
+    public void testVersionChangesOnlyOnMutation() {
+        TaskList tasks = new TaskList();
+        long version = tasks.getVersion();
+        tasks.addTask(new Todo("Read book"));
+        assertNotEquals(version, tasks.getVersion());
+
+        version = tasks.getVersion();
+        tasks.markTaskAsNotDone(0);
+        tasks.findTasks("book");
+        assertEquals(version, tasks.getVersion());
+
+        tasks.markTaskAsDone(0);
+        assertNotEquals(version, tasks.getVersion());
+    }
+
+    @Test
+    public void testFindTasksReturnsIndices() {
+        TaskList tasks = new TaskList();
+        Task task = new Todo("Read book");
+        tasks.addTask(task);
+        tasks.addTask(new Todo("Buy groceries"));
+        tasks.addTask(task);
+
+        List<IndexedTask> matchingTasks = tasks.findTasks("BOOK");
+        assertEquals(2, matchingTasks.size());
+        assertEquals(0, matchingTasks.get(0).getIndex());
+        assertEquals("3. [T][ ] Read book (#3)", matchingTasks.get(1).toString());
+    }
+
+    @Test
+    public void testPrintTasksPage() {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 5; i++) {
+            tasks.addTask(new Todo("task " + i));
+        }
+        Ui ui = new Ui();
+
+        tasks.printTasks(ui, 3, 2);
+        assertEquals("Here are the tasks in your list (page 3 of 3):\n5. [T][ ] task 5 (#5)", ui.getLastMessage());
+
+        tasks.printTasks(ui, 4, 2);
+        assertEquals("There is no page 4. Your list has 3 pages.", ui.getLastMessage());
+    }
+
+    @Test
+    public void testKeywordIndexFollowsChanges() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Read book"));
+        tasks.addTask(new Todo("Read notebook"));
+        assertEquals(1, tasks.findTasksByWords("book").size());
+
+        tasks.removeTask(0);
+        tasks.addTask(new Todo("Buy Books"));
+        tasks.addTask(new Todo("Read book again"));
+
+        List<IndexedTask> matchingTasks = tasks.findTasksByWords("READ book");
+        assertEquals(1, matchingTasks.size());
+        assertEquals("3. [T][ ] Read book again (#4)", matchingTasks.get(0).toString());
+
+        matchingTasks = tasks.findTasksByPrefix("boo");
+        assertEquals(2, matchingTasks.size());
+        assertEquals(1, matchingTasks.get(0).getIndex());
+        assertEquals(2, matchingTasks.get(1).getIndex());
+    }
+
+    @Test
+    public void testSubstringIndexMatchesScan() {
+        TaskList scanned = new TaskList();
+        TaskList indexed = new TaskList();
+        indexed.enableSubstringIndex(TaskList.DEFAULT_SUBSTRING_INDEX_MAX_POSTINGS);
+        for (String description : new String[] {"Read book", "Read NOTEBOOK", "Buy groceries", "bookkeeping"}) {
+            scanned.addTask(new Todo(description));
+            indexed.addTask(new Todo(description));
+        }
+        indexed.findTasks("warm up");
+        scanned.removeTask(0);
+        indexed.removeTask(0);
+        scanned.addTask(new Todo("Return books"));
+        indexed.addTask(new Todo("Return books"));
+
+        for (String keyword : new String[] {"book", "ok", "OOK", "tebo", "books", "xyz", "re"}) {
+            assertEquals(scanned.findTasks(keyword).toString(), indexed.findTasks(keyword).toString());
+        }
+        assertTrue(indexed.isSubstringIndexActive());
+    }
+
+    @Test
+    public void testSubstringIndexOverLimitFallsBackToScan() {
+        TaskList tasks = new TaskList();
+        tasks.enableSubstringIndex(5);
+        tasks.addTask(new Todo("Read book"));
+        tasks.addTask(new Todo("Buy groceries"));
+
+        assertEquals(1, tasks.findTasks("book").size());
+        assertFalse(tasks.isSubstringIndexActive());
+    }
+
+    @Test
+    public void testFindFreeTimeFollowsEventChanges() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Read book"));
+        tasks.addTask(new Event("Lecture", "2025-02-20 0900", "2025-02-20 1100"));
+        tasks.addTask(new Event("Meeting", "2025-02-20 1000", "2025-02-20 1300"));
+        tasks.addTask(new Event("Workshop", "2025-02-20 1400", "2025-02-20 2000"));
+        LocalDateTime now = LocalDateTime.of(2025, 2, 20, 9, 0);
+
+        assertEquals("The nearest 2-hour free slot is on Feb 20, 2025 8:00 PM to Feb 20, 2025 10:00 PM",
+                tasks.findFreeTime(2, now));
+
+        tasks.removeTask(3);
+        assertEquals("The nearest 2-hour free slot is on Feb 20, 2025 1:00 PM to Feb 20, 2025 3:00 PM",
+                tasks.findFreeTime(2, now));
+
+        tasks.removeTask(2);
+        tasks.addTask(new Event("Lunch", "2025-02-20 1200", "2025-02-20 1300"));
+        assertEquals("The nearest 1-hour free slot is on Feb 20, 2025 11:00 AM to Feb 20, 2025 12:00 PM",
+                tasks.findFreeTime(1, now));
+    }
+
+    @Test
+    public void testEventEndingBeforeItStartsCanBeRemoved() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Event("Lecture", "2025-02-20 0900", "2025-02-20 1100"));
+        tasks.addTask(new Event("Backwards", "2025-02-20 1200", "2025-02-20 1000"));
+        tasks.addTask(new Todo("Read book"));
+        LocalDateTime now = LocalDateTime.of(2025, 2, 20, 9, 0);
+        assertEquals("The nearest 2-hour free slot is on Feb 20, 2025 11:00 AM to Feb 20, 2025 1:00 PM",
+                tasks.findFreeTime(2, now));
+
+        BitSet indices = new BitSet();
+        indices.set(1);
+        tasks.removeTasks(indices);
+        assertEquals(2, tasks.size());
+        assertEquals(-1, tasks.indexOfId(2));
+        assertTrue(tasks.findTasks("Backwards").isEmpty());
+        assertEquals("The nearest 2-hour free slot is on Feb 20, 2025 11:00 AM to Feb 20, 2025 1:00 PM",
+                tasks.findFreeTime(2, now));
+    }
+
+    @Test
+    public void testFindFreeSlotsWithOptions() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Event("Lecture", "2025-02-20 0900", "2025-02-20 1100"));
+        tasks.addTask(new Event("Meeting", "2025-02-20 1000", "2025-02-20 1310"));
+        tasks.addTask(new Event("Retreat", "2025-02-20 1500", "2025-02-22 1000"));
+        LocalDateTime now = LocalDateTime.of(2025, 2, 20, 9, 30);
+
+        FreeTimeOptions options = new FreeTimeOptions(30, 9, 17, 30, 3);
+        List<LocalDateTime> slots = tasks.findFreeSlots(Duration.ofMinutes(90), options, now);
+        assertEquals(List.of(LocalDateTime.of(2025, 2, 20, 13, 30), LocalDateTime.of(2025, 2, 22, 10, 0),
+                LocalDateTime.of(2025, 2, 23, 9, 0)), slots);
+
+        options = new FreeTimeOptions(365, 9, 17, 1, 1);
+        assertEquals("No free slots available in the next 365 days for 9 hours.",
+                tasks.findFreeTime(Duration.ofHours(9), options, now));
+    }
+
+    @Test
+    public void testUpcomingTasksFollowChanges() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Deadline("Submit report", "2025-03-01 1200"));
+        tasks.addTask(new Todo("Read book"));
+        tasks.addTask(new Event("Project meeting", "2025-02-22 1400", "2025-02-22 1600"));
+        tasks.addTask(new Deadline("Pay rent", "2025-02-01 0900"));
+        LocalDateTime now = LocalDateTime.of(2025, 2, 20, 9, 0);
+
+        List<IndexedTask> upcomingTasks = tasks.findUpcomingTasks(now, 5);
+        assertEquals(2, upcomingTasks.size());
+        assertEquals(2, upcomingTasks.get(0).getIndex());
+        assertEquals(0, upcomingTasks.get(1).getIndex());
+
+        tasks.markTaskAsDone(2);
+        tasks.removeTask(1);
+        tasks.addTask(new Deadline("Renew passport", "2025-02-25 0900"));
+        upcomingTasks = tasks.findUpcomingTasks(now, 1);
+        assertEquals("4. [D][ ] Renew passport (by: Feb 25 2025, 9:00 AM) (#5)", upcomingTasks.get(0).toString());
+
+        List<IndexedTask> dueTasks = tasks.findTasksDueBefore(LocalDateTime.of(2025, 3, 1, 0, 0));
+        assertEquals(2, dueTasks.size());
+        assertEquals(2, dueTasks.get(0).getIndex());
+        assertEquals(3, dueTasks.get(1).getIndex());
+    }
+
+    @Test
+    public void testRemoveTasksInOnePass() {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 8; i++) {
+            tasks.addTask(new Todo("task " + i));
+        }
+        tasks.findTasksByWords("task");
+        List<Integer> reportedIndices = new ArrayList<>();
+        tasks.setListener(new TaskListListener() {
+            @Override
+            public void onTaskAdded(Task task) {
+            }
+
+            @Override
+            public void onTaskRemoved(int index) {
+                reportedIndices.add(index);
+            }
+
+            @Override
+            public void onTaskMarked(int index, boolean isDone) {
+            }
+        });
+
+        BitSet indices = new BitSet();
+        indices.set(1);
+        indices.set(4, 6);
+        List<Task> removedTasks = tasks.removeTasks(indices);
+        assertEquals("[[T][ ] task 2, [T][ ] task 5, [T][ ] task 6]", removedTasks.toString());
+        assertEquals(List.of(5, 4, 1), reportedIndices);
+        assertEquals(5, tasks.size());
+        assertEquals("4. [T][ ] task 7 (#7)", tasks.findTasksByWords("7").get(0).toString());
+
+        indices.clear();
+        indices.set(0, 5);
+        tasks.removeTasks(indices);
+        assertEquals(0, tasks.size());
+        assertTrue(tasks.findTasksByWords("task").isEmpty());
+    }
+
+    @Test
+    public void testIdsStayStableAcrossDeletes() {
+        List<Task> savedTasks = new ArrayList<>();
+        savedTasks.add(Task.fromFileFormat("T | 0 | saved before ids"));
+        savedTasks.add(Task.fromFileFormat("#7 | T | 1 | saved with an id"));
+        TaskList tasks = new TaskList(savedTasks);
+        assertEquals(1, tasks.getTask(0).getId());
+        assertEquals(7, tasks.getTask(1).getId());
+
+        tasks.addTask(new Todo("new task"));
+        assertEquals("#8 | T | 0 | new task", tasks.getTask(2).toFileFormat());
+        tasks.removeTask(0);
+        assertNull(tasks.getTaskById(1));
+        assertEquals(1, tasks.indexOfId(8));
+        assertEquals(-1, tasks.indexOfId(1));
+
+        tasks.addTask(new Todo("another task"));
+        assertEquals(9, tasks.getTask(2).getId());
+        assertEquals("3. [T][ ] another task (#9)", tasks.findTasks("another").get(0).toString());
+        assertEquals(tasks.getTask(2), tasks.getTaskById(9));
+    }
+
+    @Test
+    public void testDescriptionPoolSharesRepeatedDescriptions() {
+        DescriptionPool pool = new DescriptionPool(100);
+        String pooled = pool.share(new String("weekly report"));
+        assertSame(pooled, pool.share(new String("weekly report")));
+        assertSame(pooled, pool.share(pooled));
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getSharedCount());
+        assertEquals(24 + 32, pool.getSavedBytes());
+
+        DescriptionPool.enable(100);
+        try {
+            Task loaded = Task.fromFileFormat("T | 1 | weekly report");
+            Task created = new Deadline(new String("weekly report"), LocalDateTime.of(2025, 2, 21, 17, 0));
+            assertSame(loaded.getDescription(), created.getDescription());
+            created.copy();
+            loaded.copy();
+            assertEquals(1, DescriptionPool.getShared().getSharedCount());
+        } finally {
+            DescriptionPool.disable();
+        }
+        assertEquals(1, pool.getSharedCount());
+        assertNotSame(new Todo(new String("standup")).getDescription(),
+                new Todo(new String("standup")).getDescription());
+    }
+
+    @Test
+    public void testSnapshotsDoNotChangeWithTheList() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("read book"));
+        tasks.enableSnapshots();
+        tasks.addTask(new Todo("buy milk"));
+        List<Task> before = tasks.getAllTasks();
+        assertSame(before, tasks.getSnapshot());
+
+        tasks.markTaskAsDone(0);
+        tasks.removeTask(1);
+        tasks.addTask(new Todo("call mum"));
+        assertEquals("[T][ ] read book", before.get(0).toString());
+        assertEquals("[T][ ] buy milk", before.get(1).toString());
+        assertEquals(2, before.size());
+
+        List<Task> after = tasks.getSnapshot();
+        assertEquals("[T][X] read book", after.get(0).toString());
+        assertSame(tasks.getTask(0), after.get(0));
+        assertSame(tasks.getTaskById(1), after.get(0));
+        assertEquals("[T][ ] call mum", after.get(1).toString());
+        assertThrows(UnsupportedOperationException.class, () -> after.add(new Todo("sneak in")));
+    }
 }